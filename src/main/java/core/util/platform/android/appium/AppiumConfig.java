@@ -1,6 +1,9 @@
 package core.util.platform.android.appium;
 
-public enum AppiumConfig {
+import core.util.platform.host.file.ConfigOption;
+import core.util.platform.host.os.OsHelper;
+
+public enum AppiumConfig implements ConfigOption {
     APPIUM_CONFIG_FILE_PATH("core/android/appium.yaml"),
     APPIUM_DIRECTORY_CONFIG_FILE_PATH("core/android/appium-directory-%s.yaml"),
     NODE_JS_PATH("nodeJsPath"),
@@ -22,4 +25,14 @@ public enum AppiumConfig {
         return this.key;
     }
 
+    @Override
+    public String getConfigFile() {
+        if (this == APPIUM_CONFIG_FILE_PATH || this == APPIUM_DIRECTORY_CONFIG_FILE_PATH) {
+            return null;
+        }
+        return this == NODE_JS_PATH || this == APPIUM_JS_PATH
+                ? String.format(APPIUM_DIRECTORY_CONFIG_FILE_PATH.key, OsHelper.getOsType())
+                : APPIUM_CONFIG_FILE_PATH.key;
+    }
+
 }
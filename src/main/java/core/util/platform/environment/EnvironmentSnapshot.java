@@ -0,0 +1,166 @@
+package core.util.platform.environment;
+
+import core.util.platform.environment.TestEnvironment.SupportedEnvironment;
+import core.util.platform.host.file.ConfigRegistry;
+import core.util.platform.host.file.ConfigSource;
+import core.util.platform.host.file.ConfigValue;
+import core.util.platform.host.file.YamlLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable settings of every supported environment, loaded once per JVM on first use with the files parsed in
+ * parallel. Values are parsed once, so lookups are hash lookups returning primitives for typed getters.
+ * When an environment file changes under {@link ConfigRegistry} hot reload, a new snapshot replaces this one.
+ */
+public final class EnvironmentSnapshot {
+    private static final Logger LOGGER = LogManager.getLogger(EnvironmentSnapshot.class);
+
+    private static volatile EnvironmentSnapshot instance;
+
+    private final Map<SupportedEnvironment, Map<String, ConfigValue>> values;
+    private final Map<SupportedEnvironment, Map<String, String>> strings;
+
+    private EnvironmentSnapshot(Map<SupportedEnvironment, Map<String, ConfigValue>> values,
+            Map<SupportedEnvironment, Map<String, String>> strings) {
+        this.values = values;
+        this.strings = strings;
+    }
+
+    /**
+     * Get the snapshot, loading it on first call
+     */
+    public static EnvironmentSnapshot get() {
+        EnvironmentSnapshot current = instance;
+        if (current == null) {
+            synchronized (EnvironmentSnapshot.class) {
+                current = instance;
+                if (current == null) {
+                    current = load();
+                    instance = current;
+                    for (SupportedEnvironment environment : SupportedEnvironment.values()) {
+                        ConfigRegistry.subscribe(getConfigFileName(environment), null,
+                                (filePath, keyPath, oldValue, newValue) -> instance = load());
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Get the settings file of an environment in classpath
+     */
+    static String getConfigFileName(SupportedEnvironment environment) {
+        return "core/environment/environment-" + environment.toString().toLowerCase() + ".yaml";
+    }
+
+    /**
+     * Get a value as string, null if the key does not exist in the environment
+     */
+    public String getValue(SupportedEnvironment environment, String key) {
+        return strings.get(environment).get(key);
+    }
+
+    public String getString(SupportedEnvironment environment, String key, String defaultValue) {
+        return value(environment, key).getString(defaultValue);
+    }
+
+    public int getInt(SupportedEnvironment environment, String key, int defaultValue) {
+        return value(environment, key).getInt(defaultValue);
+    }
+
+    public long getLong(SupportedEnvironment environment, String key, long defaultValue) {
+        return value(environment, key).getLong(defaultValue);
+    }
+
+    public boolean getBoolean(SupportedEnvironment environment, String key, boolean defaultValue) {
+        return value(environment, key).getBoolean(defaultValue);
+    }
+
+    /**
+     * Get all settings of an environment as strings
+     *
+     * @return read-only map, empty if the environment file could not be loaded
+     */
+    public Map<String, String> getValues(SupportedEnvironment environment) {
+        return strings.get(environment);
+    }
+
+    /**
+     * Compare environments key by key, without parsing anything again
+     *
+     * @param environments the environments to compare, all supported environments if none given
+     * @return read-only map sorted by key, of the keys whose value is not the same in all environments, to the value
+     *         of each environment (null where the key is missing)
+     */
+    public Map<String, Map<SupportedEnvironment, String>> diff(SupportedEnvironment... environments) {
+        SupportedEnvironment[] compared = environments.length == 0 ? SupportedEnvironment.values() : environments;
+        TreeSet<String> keys = new TreeSet<>();
+        for (SupportedEnvironment environment : compared) {
+            keys.addAll(strings.get(environment).keySet());
+        }
+
+        Map<String, Map<SupportedEnvironment, String>> differences = new TreeMap<>();
+        for (String key : keys) {
+            String first = strings.get(compared[0]).get(key);
+            boolean same = true;
+            for (int i = 1; i < compared.length && same; i++) {
+                same = Objects.equals(first, strings.get(compared[i]).get(key));
+            }
+            if (!same) {
+                Map<SupportedEnvironment, String> byEnvironment = new EnumMap<>(SupportedEnvironment.class);
+                for (SupportedEnvironment environment : compared) {
+                    byEnvironment.put(environment, strings.get(environment).get(key));
+                }
+                differences.put(key, Collections.unmodifiableMap(byEnvironment));
+            }
+        }
+        return Collections.unmodifiableMap(differences);
+    }
+
+    private ConfigValue value(SupportedEnvironment environment, String key) {
+        ConfigValue value = values.get(environment).get(key);
+        return value != null ? value : ConfigValue.of(key, null);
+    }
+
+    private static EnvironmentSnapshot load() {
+        long start = System.nanoTime();
+        Map<SupportedEnvironment, ConfigSource> sources = Arrays.stream(SupportedEnvironment.values()).parallel()
+                .collect(Collectors.toMap(Function.identity(),
+                        environment -> YamlLoader.getSource(getConfigFileName(environment)),
+                        (first, second) -> first, () -> new EnumMap<>(SupportedEnvironment.class)));
+
+        Map<SupportedEnvironment, Map<String, ConfigValue>> values = new EnumMap<>(SupportedEnvironment.class);
+        Map<SupportedEnvironment, Map<String, String>> strings = new EnumMap<>(SupportedEnvironment.class);
+        sources.forEach((environment, source) -> {
+            Map<String, ConfigValue> environmentValues = new HashMap<>();
+            Map<String, String> environmentStrings = new HashMap<>();
+            source.getTree().forEach((key, value) -> {
+                ConfigValue configValue = ConfigValue.of(key, value);
+                environmentValues.put(key, configValue);
+                environmentStrings.put(key, configValue.getString(null));
+            });
+            if (environmentValues.isEmpty()) {
+                LOGGER.error("Failed to load environment settings for: " + environment);
+            }
+            values.put(environment, Collections.unmodifiableMap(environmentValues));
+            strings.put(environment, Collections.unmodifiableMap(environmentStrings));
+        });
+
+        LOGGER.info("Environment snapshot of " + values.keySet() + " loaded in "
+                + (System.nanoTime() - start) / 1_000_000L + " ms");
+        return new EnvironmentSnapshot(Collections.unmodifiableMap(values), Collections.unmodifiableMap(strings));
+    }
+}
@@ -1,5 +1,7 @@
 package core.util.platform.environment;
 
+import core.util.platform.host.file.ConfigRegistry;
+import core.util.platform.host.file.RuntimeConfig;
 import core.util.platform.host.file.YamlLoader;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
@@ -13,11 +15,16 @@ public class TestEnvironment {
     private static final SupportedEnvironment DEFAULT_ENVIRONMENT = SupportedEnvironment.TEST;
 
     private static SupportedEnvironment runningEnvironment;
-    private static Map<String, String> settings;
+    private static volatile Map<String, String> settings;
 
     static {
         runningEnvironment = detectRunningEnvironment();
         settings = loadEnvironmentSettings();
+        if (runningEnvironment != null) {
+            // Replace the settings when the file is edited while hot reload is running
+            ConfigRegistry.subscribe(EnvironmentSnapshot.getConfigFileName(runningEnvironment), null,
+                    (filePath, keyPath, oldValue, newValue) -> settings = loadEnvironmentSettings());
+        }
     }
 
     private TestEnvironment() {
@@ -34,8 +41,7 @@ public class TestEnvironment {
                 return Collections.emptyMap();
             }
 
-            String configFileName = "core/environment/environment-" + runningEnvironment.toString().toLowerCase()
-                    + ".yaml";
+            String configFileName = EnvironmentSnapshot.getConfigFileName(runningEnvironment);
             Map<String, Object> loadedConfig = YamlLoader.loadConfig(configFileName);
 
             if (loadedConfig.isEmpty()) {
@@ -101,13 +107,14 @@ public class TestEnvironment {
     }
 
     /**
-     * Detect running environment from system environment variable
+     * Detect running environment from system property, then system environment variable
      */
     private static SupportedEnvironment detectRunningEnvironment() {
-        String environment = System.getenv(ENVIRONMENT_OS_PROPERTY_KEY);
+        String environment = RuntimeConfig.resolve(ENVIRONMENT_OS_PROPERTY_KEY, ENVIRONMENT_OS_PROPERTY_KEY, null)
+                .getString(null);
 
         if (environment == null || environment.trim().isEmpty()) {
-            LOGGER.warn("Environment variable '" + ENVIRONMENT_OS_PROPERTY_KEY + "' not set, using default: "
+            LOGGER.warn("Environment '" + ENVIRONMENT_OS_PROPERTY_KEY + "' not set, using default: "
                     + DEFAULT_ENVIRONMENT);
             return DEFAULT_ENVIRONMENT;
         }
@@ -131,27 +138,23 @@ public class TestEnvironment {
             return null;
         }
 
-        try {
-            String configFileName = "core/environment/environment-" + environment.toString().toLowerCase() + ".yaml";
-            Map<String, Object> loadedConfig = YamlLoader.loadConfig(configFileName);
-
-            if (loadedConfig.isEmpty()) {
-                LOGGER.error("Failed to load environment settings for: " + environment);
-                return null;
-            }
-
-            Object value = loadedConfig.get(key);
-            if (value == null) {
-                LOGGER.warn("Key not found in environment '" + environment + "': " + key);
-                return null;
-            }
-
-            LOGGER.debug("Retrieved value from environment '" + environment + "' for key '" + key + "': " + value);
-            return String.valueOf(value);
-        } catch (Exception e) {
-            LOGGER.error("Error getting value for environment: " + e.getMessage(), e);
+        String value = EnvironmentSnapshot.get().getValue(environment, key);
+        if (value == null) {
+            LOGGER.warn("Key not found in environment '" + environment + "': " + key);
             return null;
         }
+
+        LOGGER.debug("Retrieved value from environment '" + environment + "' for key '" + key + "': " + value);
+        return value;
+    }
+
+    /**
+     * Get the keys whose values differ between environments, with the value of each environment
+     * (null where missing); compares all supported environments if none given
+     */
+    public static Map<String, Map<SupportedEnvironment, String>> diffEnvironments(
+            SupportedEnvironment... environments) {
+        return EnvironmentSnapshot.get().diff(environments);
     }
 
     /**
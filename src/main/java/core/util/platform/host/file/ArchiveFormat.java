@@ -0,0 +1,32 @@
+package core.util.platform.host.file;
+
+public enum ArchiveFormat {
+    ZIP("zip"),
+    TAR_GZ("tar.gz"),
+    ;
+
+    private final String extension;
+
+    ArchiveFormat(String extension) {
+        this.extension = extension;
+    }
+
+    @Override
+    public String toString() {
+        return this.extension;
+    }
+
+    /**
+     * Get ArchiveFormat by name, null for unknown values such as "none"
+     */
+    public static ArchiveFormat getArchiveFormatByName(String name) {
+        if (name != null) {
+            for (ArchiveFormat archiveFormat : values()) {
+                if (archiveFormat.extension.equalsIgnoreCase(name.trim())) {
+                    return archiveFormat;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,184 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Deletes files and directory trees in the background, so the calling test thread does not wait for the file system
+ */
+public class AsyncFileCleaner {
+    private static final Logger LOGGER = LogManager.getLogger(AsyncFileCleaner.class);
+
+    private static final String TRASH_SUFFIX = ".trash-";
+    // Fork-join workers are daemon threads, so a pending cleanup never keeps the JVM alive
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+            Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors())));
+    private static final Set<CompletableFuture<Integer>> PENDING = ConcurrentHashMap.newKeySet();
+
+    private AsyncFileCleaner() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Delete a file or directory tree in the background.
+     * With renameAside the tree is first renamed to a hidden sibling, so the original path is free as soon as this
+     * method returns and can be recreated right away.
+     *
+     * @param root        the file or directory to delete
+     * @param renameAside whether to rename the target before deleting it
+     * @return future completing with the number of deleted entries
+     */
+    public static CompletableFuture<Integer> deleteTree(Path root, boolean renameAside) {
+        if (root == null || !Files.exists(root, LinkOption.NOFOLLOW_LINKS)) {
+            LOGGER.debug("Nothing to delete: " + root);
+            return CompletableFuture.completedFuture(0);
+        }
+
+        Path target = root.toAbsolutePath();
+        if (renameAside) {
+            Path trash = target.resolveSibling("." + target.getFileName() + TRASH_SUFFIX + System.nanoTime());
+            try {
+                Files.move(target, trash);
+                target = trash;
+            } catch (IOException e) {
+                LOGGER.warn("Cannot rename " + target + " aside, deleting in place: " + e.getMessage());
+            }
+        }
+
+        Path deleteRoot = target;
+        return track(root, CompletableFuture.supplyAsync(() -> new DeleteTask(deleteRoot).invoke(), POOL));
+    }
+
+    /**
+     * Delete the direct children of a directory accepted by the filter in the background, each subtree in parallel
+     *
+     * @param directory the directory to clean
+     * @param filter    predicate on the child path
+     * @return future completing with the number of deleted entries
+     */
+    public static CompletableFuture<Integer> deleteChildren(Path directory, Predicate<Path> filter) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            LOGGER.debug("Not a directory, nothing to delete: " + directory);
+            return CompletableFuture.completedFuture(0);
+        }
+
+        return track(directory, CompletableFuture.supplyAsync(() -> {
+            List<DeleteTask> tasks = new ArrayList<>();
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+                for (Path child : children) {
+                    if (filter.test(child)) {
+                        tasks.add(new DeleteTask(child));
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.error("Error listing directory " + directory + ": " + e.getMessage(), e);
+            }
+            int deleted = 0;
+            for (DeleteTask task : RecursiveTask.invokeAll(tasks)) {
+                deleted += task.join();
+            }
+            return deleted;
+        }, POOL));
+    }
+
+    /**
+     * Wait for all background deletions started so far
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return true if every deletion finished in time
+     */
+    public static boolean awaitCompletion(long timeoutMillis) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(PENDING.toArray(new CompletableFuture[0]));
+        try {
+            all.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.warn("Background deletions did not complete: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static CompletableFuture<Integer> track(Path root, CompletableFuture<Integer> future) {
+        PENDING.add(future);
+        long start = System.nanoTime();
+        future.whenComplete((deleted, error) -> {
+            PENDING.remove(future);
+            if (error != null) {
+                LOGGER.error("Error deleting " + root + ": " + error.getMessage(), error);
+            } else {
+                LOGGER.info("Deleted " + deleted + " entries under " + root + " in "
+                        + (System.nanoTime() - start) / 1_000_000L + " ms");
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Delete a path, forking one subtask per subdirectory; symbolic links are deleted, never followed
+     */
+    private static class DeleteTask extends RecursiveTask<Integer> {
+        private final Path path;
+
+        DeleteTask(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        protected Integer compute() {
+            int deleted = 0;
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                List<DeleteTask> subdirectories = new ArrayList<>();
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                    for (Path child : children) {
+                        if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                            DeleteTask task = new DeleteTask(child);
+                            task.fork();
+                            subdirectories.add(task);
+                        } else {
+                            deleted += deleteQuietly(child);
+                        }
+                    }
+                } catch (IOException e) {
+                    LOGGER.warn("Cannot list " + path + ": " + e.getMessage());
+                }
+                for (DeleteTask task : subdirectories) {
+                    deleted += task.join();
+                }
+            }
+            return deleted + deleteQuietly(path);
+        }
+
+        private static int deleteQuietly(Path path) {
+            try {
+                Files.delete(path);
+                return 1;
+            } catch (NoSuchFileException e) {
+                return 0;
+            } catch (IOException e) {
+                LOGGER.warn("Failed to delete: " + path + " - " + e.getMessage());
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package core.util.platform.host.file;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Write-to-temp-then-rename helpers, so readers never observe a partially written file
+ */
+public class AtomicFiles {
+
+    private AtomicFiles() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Create an empty hidden temp file next to the target, on the same file system so it can be renamed over it
+     */
+    public static Path createTempSibling(Path target) throws IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        Path parent = absoluteTarget.getParent();
+        Files.createDirectories(parent);
+        return Files.createTempFile(parent, "." + absoluteTarget.getFileName() + ".", ".tmp");
+    }
+
+    /**
+     * Rename the source over the target, atomically where the file system supports it
+     */
+    public static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Replace the target content atomically
+     */
+    public static void write(Path target, byte[] content) throws IOException {
+        Path temp = createTempSibling(target);
+        try {
+            Files.write(temp, content);
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+
+public class ChecksumService {
+    private static final Logger LOGGER = LogManager.getLogger(ChecksumService.class);
+
+    // Files are read sequentially through a direct buffer reused by each thread; they are not memory-mapped, as a
+    // mapped file cannot be deleted on Windows until the mapping is garbage collected
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(READ_BUFFER_SIZE));
+
+    // Least recently used checksums are evicted above this number of entries
+    private static final int MAX_CACHE_ENTRIES = 4096;
+    private static final Map<CacheKey, CachedChecksum> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<CacheKey, CachedChecksum>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedChecksum> eldest) {
+                    return size() > MAX_CACHE_ENTRIES;
+                }
+            });
+
+    private ChecksumService() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Calculate checksum of a file, reusing the cached value while its size and modification time are unchanged
+     *
+     * @param file      the file to hash
+     * @param algorithm the checksum algorithm
+     * @return the lowercase hex checksum, or null if the file cannot be read
+     */
+    public static String checksum(Path file, Algorithm algorithm) {
+        if (file == null || algorithm == null) {
+            LOGGER.warn("File or algorithm is null");
+            return null;
+        }
+
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(absoluteFile, BasicFileAttributes.class);
+            if (!attrs.isRegularFile()) {
+                LOGGER.error("Not a regular file: " + absoluteFile);
+                return null;
+            }
+
+            CacheKey key = new CacheKey(absoluteFile, algorithm);
+            long modified = attrs.lastModifiedTime().toMillis();
+            CachedChecksum cached = CACHE.get(key);
+            if (cached != null && cached.size == attrs.size() && cached.modified == modified) {
+                LOGGER.debug("Checksum cache hit: " + absoluteFile);
+                return cached.value;
+            }
+
+            String value = hash(absoluteFile, algorithm);
+            CACHE.put(key, new CachedChecksum(attrs.size(), modified, value));
+            LOGGER.debug(algorithm + " of " + absoluteFile + ": " + value);
+            return value;
+        } catch (IOException e) {
+            LOGGER.error("Error calculating " + algorithm + " of " + absoluteFile + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Calculate checksums of several files in parallel
+     *
+     * @param files     the files to hash
+     * @param algorithm the checksum algorithm
+     * @return map of file to checksum in input order, null values for files that cannot be read
+     */
+    public static Map<Path, String> checksumAll(List<Path> files, Algorithm algorithm) {
+        if (files == null || files.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Path, String> parallelResults = files.parallelStream()
+                .distinct()
+                .collect(Collectors.toConcurrentMap(file -> file,
+                        file -> Objects.toString(checksum(file, algorithm), "")));
+
+        Map<Path, String> results = new LinkedHashMap<>();
+        for (Path file : files) {
+            String value = parallelResults.get(file);
+            results.put(file, value == null || value.isEmpty() ? null : value);
+        }
+        return results;
+    }
+
+    /**
+     * Drop all cached checksums
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Hash the file content, reading it in chunks into a direct buffer to avoid copying through the Java heap
+     */
+    private static String hash(Path file, Algorithm algorithm) throws IOException {
+        Hasher hasher = algorithm.newHasher();
+        ByteBuffer buffer = READ_BUFFER.get();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                hasher.update(buffer);
+                buffer.clear();
+            }
+        }
+        return hasher.hexDigest();
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Supported checksum algorithms
+     */
+    public enum Algorithm {
+        MD5("MD5"),
+        SHA_256("SHA-256"),
+        CRC32C("CRC32C");
+
+        private final String algorithmName;
+
+        Algorithm(String algorithmName) {
+            this.algorithmName = algorithmName;
+        }
+
+        @Override
+        public String toString() {
+            return this.algorithmName;
+        }
+
+        private Hasher newHasher() throws IOException {
+            if (this == CRC32C) {
+                CRC32C crc = new CRC32C();
+                return new Hasher() {
+                    @Override
+                    public void update(ByteBuffer buffer) {
+                        crc.update(buffer);
+                    }
+
+                    @Override
+                    public String hexDigest() {
+                        return String.format("%08x", crc.getValue());
+                    }
+                };
+            }
+
+            try {
+                MessageDigest digest = MessageDigest.getInstance(algorithmName);
+                return new Hasher() {
+                    @Override
+                    public void update(ByteBuffer buffer) {
+                        digest.update(buffer);
+                    }
+
+                    @Override
+                    public String hexDigest() {
+                        return toHex(digest.digest());
+                    }
+                };
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException("Checksum algorithm not available: " + algorithmName, e);
+            }
+        }
+    }
+
+    /**
+     * Common view over MessageDigest and Checksum
+     */
+    private interface Hasher {
+        void update(ByteBuffer buffer);
+
+        String hexDigest();
+    }
+
+    private static final class CacheKey {
+        private final Path path;
+        private final Algorithm algorithm;
+
+        CacheKey(Path path, Algorithm algorithm) {
+            this.path = path;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return path.equals(other.path) && algorithm == other.algorithm;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * path.hashCode() + algorithm.hashCode();
+        }
+    }
+
+    /**
+     * Checksum together with the file size and modification time it was computed for
+     */
+    private static final class CachedChecksum {
+        private final long size;
+        private final long modified;
+        private final String value;
+
+        CachedChecksum(long size, long modified, String value) {
+            this.size = size;
+            this.modified = modified;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent cache of parsed YAML documents, shared by the JVMs (e.g. surefire forks) of a build.
+ * Each document is stored as a compact binary tree under target/yaml-cache, one file per source, with the
+ * SHA-256 of the source content in its header: a later JVM memory-maps the file and decodes it instead of
+ * running SnakeYAML, and rebuilds it when the content hash differs.
+ * Documents with values other than maps, lists, strings, numbers and booleans (e.g. dates) are not cached.
+ * Disable with -DyamlCache=false or DEMO_YAML_CACHE=false; the directory can be changed with -DyamlCacheDirectory or
+ * DEMO_YAML_CACHE_DIRECTORY.
+ */
+public class ConfigCache {
+    private static final Logger LOGGER = LogManager.getLogger(ConfigCache.class);
+
+    private static final String ENABLED_PROPERTY = "yamlCache";
+    private static final String DIRECTORY_PROPERTY = "yamlCacheDirectory";
+    private static final String DEFAULT_DIRECTORY = "target/yaml-cache";
+
+    private static final int MAGIC = 0x59434231; // "YCB1"
+    private static final int DIGEST_LENGTH = 32;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte TRUE = 5;
+    private static final byte FALSE = 6;
+    private static final byte MAP = 7;
+    private static final byte LIST = 8;
+
+    private ConfigCache() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Parse a YAML file of the file system, e.g. test data under test_data_path, through the cache
+     *
+     * @param file the YAML file
+     * @return the immutable tree, null if the document is empty
+     */
+    public static Map<String, Object> load(Path file) throws IOException {
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        return parse(absoluteFile.toString(), Files.readAllBytes(absoluteFile));
+    }
+
+    /**
+     * Get the parsed document from the cache, or parse it with SnakeYAML and store it
+     *
+     * @param name    the name of the source, e.g. its classpath path; one cache file is kept per name
+     * @param content the YAML content
+     * @return the immutable tree, null if the document is empty
+     */
+    static Map<String, Object> parse(String name, byte[] content) {
+        if (!SettingsHolder.ENABLED) {
+            return parseYaml(content);
+        }
+
+        byte[] digest = sha256(content);
+        Path cacheFile = getCacheFile(name);
+        Map<String, Object> cached = read(cacheFile, digest);
+        if (cached != null) {
+            LOGGER.debug("YAML cache hit: " + name);
+            return cached;
+        }
+
+        Map<String, Object> tree = parseYaml(content);
+        if (tree != null) {
+            write(cacheFile, digest, tree, name);
+        }
+        return tree;
+    }
+
+    private static Map<String, Object> parseYaml(byte[] content) {
+        Map<?, ?> document = new Yaml().load(new ByteArrayInputStream(content));
+        return document == null ? null : immutableMap(document);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> read(Path cacheFile, byte[] digest) {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            byte[] storedDigest = new byte[DIGEST_LENGTH];
+            buffer.get(storedDigest);
+            if (!Arrays.equals(storedDigest, digest)) {
+                return null;
+            }
+            Object tree = decode(buffer);
+            return tree instanceof Map ? (Map<String, Object>) tree : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // Corrupt content, e.g. an invalid length; the entry is rebuilt from the source
+            LOGGER.warn("Ignoring unreadable YAML cache file " + cacheFile + ": " + e);
+            return null;
+        }
+    }
+
+    private static void write(Path cacheFile, byte[] digest, Map<String, Object> tree, String name) {
+        String unsupported = findUnsupportedType(tree);
+        if (unsupported != null) {
+            LOGGER.debug("YAML document not cached: " + name + " (unsupported value type " + unsupported + ")");
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.write(digest);
+            encode(out, tree);
+            out.flush();
+            AtomicFiles.write(cacheFile, bytes.toByteArray());
+            LOGGER.debug("YAML cache stored: " + name + " -> " + cacheFile);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write YAML cache file " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    private static void encode(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, (String) entry.getKey());
+                encode(out, entry.getValue());
+            }
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                encode(out, element);
+            }
+        } else {
+            throw new IllegalArgumentException("unsupported value type " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * Get the class name of the first value that cannot be encoded, null if the whole tree can
+     */
+    private static String findUnsupportedType(Object value) {
+        if (value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Double || value instanceof Boolean) {
+            return null;
+        }
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                String unsupported = entry.getKey() instanceof String ? findUnsupportedType(entry.getValue())
+                        : entry.getKey() == null ? "null key" : entry.getKey().getClass().getName();
+                if (unsupported != null) {
+                    return unsupported;
+                }
+            }
+            return null;
+        }
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                String unsupported = findUnsupportedType(element);
+                if (unsupported != null) {
+                    return unsupported;
+                }
+            }
+            return null;
+        }
+        return value.getClass().getName();
+    }
+
+    private static Object decode(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(buffer);
+            case INT:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case DOUBLE:
+                return buffer.getDouble();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case MAP: {
+                int size = readSize(buffer);
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(readString(buffer), decode(buffer));
+                }
+                return Collections.unmodifiableMap(map);
+            }
+            case LIST: {
+                int size = readSize(buffer);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(decode(buffer));
+                }
+                return Collections.unmodifiableList(list);
+            }
+            default:
+                throw new IllegalArgumentException("unknown tag " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readSize(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a length or element count, rejecting values that cannot fit in the rest of the file, as every byte of
+     * a string and every element of a map or list takes at least one byte
+     */
+    private static int readSize(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        if (size < 0 || size > buffer.remaining()) {
+            throw new IllegalArgumentException("invalid size " + size + " with " + buffer.remaining()
+                    + " bytes remaining");
+        }
+        return size;
+    }
+
+    private static Path getCacheFile(String name) {
+        return SettingsHolder.DIRECTORY.resolve(toHex(sha256(name.getBytes(StandardCharsets.UTF_8))) + ".bin");
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private static Object immutableCopy(Object value) {
+        if (value instanceof Map) {
+            return immutableMap((Map<?, ?>) value);
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                copy.add(immutableCopy(element));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    /**
+     * Deep immutable copy; keys are converted to strings, so numeric YAML keys can be looked up too
+     */
+    private static Map<String, Object> immutableMap(Map<?, ?> map) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            copy.put(String.valueOf(entry.getKey()), immutableCopy(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Reads the settings once, with system property or environment variable
+     */
+    private static final class SettingsHolder {
+        private static final boolean ENABLED = RuntimeConfig.resolve(ENABLED_PROPERTY, null).getBoolean(true);
+        private static final Path DIRECTORY = resolveDirectory();
+
+        private static Path resolveDirectory() {
+            String directory = RuntimeConfig.resolve(DIRECTORY_PROPERTY, null).getString(null);
+            return directory != null ? Paths.get(directory)
+                    : Paths.get(System.getProperty("user.dir"), DEFAULT_DIRECTORY);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package core.util.platform.host.file;
+
+/**
+ * Callback for changes of a configuration value, see {@link ConfigRegistry#subscribe}
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+    /**
+     * Called on the config watcher thread after the file was reloaded
+     *
+     * @param filePath the classpath path of the YAML file
+     * @param keyPath  the subscribed dot-separated key path, null for the whole file
+     * @param oldValue the previous value, null if it did not exist
+     * @param newValue the new value, null if it was removed
+     */
+    void onChange(String filePath, String keyPath, Object oldValue, Object newValue);
+}
@@ -0,0 +1,118 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+
+/**
+ * Compiled lookup of one configuration value.
+ * The key path is split once; the value and its string, number and boolean forms are resolved once per parsed tree,
+ * so typed getters return primitives without boxing or re-parsing on every call (see {@link ConfigValue}).
+ */
+public final class ConfigKey {
+    private static final Logger LOGGER = LogManager.getLogger(ConfigKey.class);
+
+    private final ConfigSource source;
+    private final String name;
+    private final String[] segments;
+    private volatile Resolved resolved;
+
+    ConfigKey(ConfigSource source, String name, String[] segments) {
+        this.source = source;
+        this.name = name;
+        this.segments = segments;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the current value, resolved once per parsed tree
+     */
+    public ConfigValue get() {
+        return resolve().value;
+    }
+
+    /**
+     * Whether the value exists
+     */
+    public boolean isPresent() {
+        return resolve().value.isPresent();
+    }
+
+    /**
+     * Get the raw value: an immutable map or list, or a scalar; null if not found
+     */
+    public Object getValue() {
+        return resolve().value.getValue();
+    }
+
+    public String getString(String defaultValue) {
+        return resolve().value.getString(defaultValue);
+    }
+
+    public int getInt(int defaultValue) {
+        return resolve().value.getInt(defaultValue);
+    }
+
+    public long getLong(long defaultValue) {
+        return resolve().value.getLong(defaultValue);
+    }
+
+    public double getDouble(double defaultValue) {
+        return resolve().value.getDouble(defaultValue);
+    }
+
+    /**
+     * Get the value as boolean; like Boolean.parseBoolean, any value other than "true" is false
+     */
+    public boolean getBoolean(boolean defaultValue) {
+        return resolve().value.getBoolean(defaultValue);
+    }
+
+    private Resolved resolve() {
+        Map<String, Object> tree = source.getTree();
+        Resolved current = resolved;
+        if (current == null || current.tree != tree) {
+            current = new Resolved(tree, ConfigValue.of(name, lookup(tree)));
+            resolved = current;
+        }
+        return current;
+    }
+
+    private Object lookup(Map<String, Object> tree) {
+        Object current = tree;
+        for (String segment : segments) {
+            if (!(current instanceof Map)) {
+                LOGGER.warn("Invalid configuration path: " + name + " in " + source.getFilePath());
+                return null;
+            }
+            current = ((Map<?, ?>) current).get(segment);
+            if (current == null) {
+                LOGGER.warn("Key not found in configuration: " + name + " in " + source.getFilePath());
+                return null;
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return source.getFilePath() + ":" + name;
+    }
+
+    /**
+     * The value resolved from one parsed tree
+     */
+    private static final class Resolved {
+        private final Map<String, Object> tree;
+        private final ConfigValue value;
+
+        Resolved(Map<String, Object> tree, ConfigValue value) {
+            this.tree = tree;
+            this.value = value;
+        }
+    }
+}
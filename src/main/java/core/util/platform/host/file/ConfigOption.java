@@ -0,0 +1,21 @@
+package core.util.platform.host.file;
+
+/**
+ * Setting of a config enum, whose toString() is its key, resolved once by {@link RuntimeConfig} on first use
+ */
+public interface ConfigOption {
+
+    /**
+     * Get the relative path to the YAML file of the setting in resources, null to skip the YAML layer
+     */
+    default String getConfigFile() {
+        return null;
+    }
+
+    /**
+     * Get the value resolved by {@link RuntimeConfig}, missing if not set anywhere
+     */
+    default ConfigValue value() {
+        return RuntimeConfig.resolve(this);
+    }
+}
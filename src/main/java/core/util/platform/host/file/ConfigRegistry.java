@@ -0,0 +1,300 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Hot reload of the YAML configuration under "core/" in classpath.
+ * A watcher thread reloads a changed file into its {@link ConfigSource}, publishes a new immutable
+ * {@link ConfigSnapshot} (copy-on-write, readers never lock) and notifies the listeners of the changed keys.
+ * Only files in a classpath directory can be watched, e.g. target/classes/core, not files inside a jar.
+ * Watching is off unless started, e.g. with -DconfigHotReload=true through {@link #startIfEnabled()}.
+ * <p>
+ * Only readers that subscribe, or that look values up through {@link YamlLoader} on each use, see a reload: the
+ * environment settings, the report folders, wait settings, publish mode, packaging format and retention policy.
+ * Values resolved once through {@link RuntimeConfig}, e.g. the settings of the *Config enums, keep their value until
+ * the JVM restarts.
+ */
+public class ConfigRegistry {
+    private static final Logger LOGGER = LogManager.getLogger(ConfigRegistry.class);
+
+    public static final String HOT_RELOAD_PROPERTY = "configHotReload";
+
+    private static final String CONFIG_ROOT = "core";
+    // Editors save in several steps, changes arriving within this period are reloaded together
+    private static final long DEBOUNCE_MILLIS = 100;
+
+    private static final AtomicReference<ConfigSnapshot> SNAPSHOT = new AtomicReference<>(ConfigSnapshot.EMPTY);
+    private static final List<Subscription> SUBSCRIPTIONS = new CopyOnWriteArrayList<>();
+
+    private static WatchService watchService;
+    private static Thread watcher;
+
+    private ConfigRegistry() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Get the current snapshot
+     */
+    public static ConfigSnapshot current() {
+        return SNAPSHOT.get();
+    }
+
+    /**
+     * Get the current tree of a file, adding it to the snapshot on first use
+     *
+     * @param filePath the relative path to the YAML file in resources
+     * @return the immutable tree, empty if the file is missing
+     */
+    public static Map<String, Object> getTree(String filePath) {
+        Map<String, Object> tree = SNAPSHOT.get().getTree(filePath);
+        if (tree != null) {
+            return tree;
+        }
+        Map<String, Object> loaded = YamlLoader.getSource(filePath).getTree();
+        return SNAPSHOT.updateAndGet(snapshot -> snapshot.getTree(filePath) != null ? snapshot
+                : snapshot.with(filePath, loaded, false)).getTree(filePath);
+    }
+
+    /**
+     * Subscribe to changes of a value, or of any value of the file when keyPath is null
+     *
+     * @param filePath the relative path to the YAML file in resources
+     * @param keyPath  the dot-separated path to the value (e.g., "database.host"), or null
+     * @param listener called on the watcher thread when the value changed
+     */
+    public static void subscribe(String filePath, String keyPath, ConfigChangeListener listener) {
+        // Parse now so the next change is compared with the content at subscription time
+        getTree(filePath);
+        SUBSCRIPTIONS.add(new Subscription(filePath, keyPath, listener));
+    }
+
+    /**
+     * Remove all subscriptions of a listener
+     */
+    public static void unsubscribe(ConfigChangeListener listener) {
+        SUBSCRIPTIONS.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    /**
+     * Start watching when configHotReload is true, with system property or environment variable
+     */
+    public static void startIfEnabled() {
+        if (RuntimeConfig.resolve(HOT_RELOAD_PROPERTY, null).getBoolean(false)) {
+            start();
+        }
+    }
+
+    /**
+     * Start watching the configuration directory
+     *
+     * @return true if watching, false if the directory cannot be watched
+     */
+    public static synchronized boolean start() {
+        if (watcher != null) {
+            return true;
+        }
+
+        Path root = findConfigRoot();
+        if (root == null) {
+            LOGGER.warn("Configuration is not in a classpath directory, hot reload is not available");
+            return false;
+        }
+
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            registerTree(service, root);
+            watchService = service;
+        } catch (IOException e) {
+            LOGGER.error("Cannot watch configuration directory " + root + ": " + e.getMessage(), e);
+            return false;
+        }
+
+        WatchService service = watchService;
+        watcher = new Thread(() -> watch(service, root), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        LOGGER.info("Watching configuration for changes: " + root);
+        return true;
+    }
+
+    /**
+     * Stop watching
+     */
+    public static synchronized void stop() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error closing config watcher: " + e.getMessage());
+        }
+        watcher = null;
+        watchService = null;
+    }
+
+    public static synchronized boolean isRunning() {
+        return watcher != null;
+    }
+
+    /**
+     * Reload a file, publish the new snapshot and notify the listeners, if its content changed
+     *
+     * @param filePath the relative path to the YAML file in resources
+     * @return true if the content changed
+     */
+    public static boolean reload(String filePath) {
+        ConfigSource source = YamlLoader.getSource(filePath);
+        Map<String, Object> oldTree = source.getTree();
+        if (!source.reload()) {
+            return false;
+        }
+
+        Map<String, Object> newTree = source.getTree();
+        ConfigSnapshot snapshot = SNAPSHOT.updateAndGet(current -> current.with(filePath, newTree, true));
+        LOGGER.info("Configuration reloaded: " + filePath + " (version " + snapshot.getVersion() + ")");
+
+        for (Subscription subscription : SUBSCRIPTIONS) {
+            if (!subscription.filePath.equals(filePath)) {
+                continue;
+            }
+            Object oldValue = subscription.lookup(oldTree);
+            Object newValue = subscription.lookup(newTree);
+            if (!Objects.equals(oldValue, newValue)) {
+                try {
+                    subscription.listener.onChange(filePath, subscription.keyPath, oldValue, newValue);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Config listener failed for " + filePath + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void watch(WatchService service, Path root) {
+        try {
+            while (true) {
+                Set<String> changed = new LinkedHashSet<>();
+                collect(service, service.take(), root, changed);
+                WatchKey more;
+                while ((more = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(service, more, root, changed);
+                }
+                for (String filePath : changed) {
+                    if (YamlLoader.isLoaded(filePath) || isSubscribed(filePath)) {
+                        reload(filePath);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.info("Stopped watching configuration");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void collect(WatchService service, WatchKey key, Path root, Set<String> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    registerTree(service, path);
+                } catch (IOException e) {
+                    LOGGER.warn("Cannot watch new directory " + path + ": " + e.getMessage());
+                }
+            }
+            String name = path.getFileName().toString();
+            if (name.endsWith(".yaml") || name.endsWith(".yml")) {
+                changed.add(CONFIG_ROOT + "/" + root.relativize(path).toString().replace('\\', '/'));
+            }
+        }
+        key.reset();
+    }
+
+    private static boolean isSubscribed(String filePath) {
+        for (Subscription subscription : SUBSCRIPTIONS) {
+            if (subscription.filePath.equals(filePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void registerTree(WatchService service, Path root) throws IOException {
+        try (Stream<Path> directories = FileQuery.in(root).filesOnly(false)
+                .where((path, attrs) -> attrs.isDirectory()).stream()) {
+            for (Path directory : (Iterable<Path>) directories::iterator) {
+                directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+    }
+
+    private static Path findConfigRoot() {
+        URL url = ConfigRegistry.class.getClassLoader().getResource(CONFIG_ROOT);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Listener of one key path of one file
+     */
+    private static final class Subscription {
+        private final String filePath;
+        private final String keyPath;
+        private final String[] segments;
+        private final ConfigChangeListener listener;
+
+        Subscription(String filePath, String keyPath, ConfigChangeListener listener) {
+            this.filePath = filePath;
+            this.keyPath = keyPath;
+            this.segments = keyPath == null ? new String[0] : keyPath.split("\\.");
+            this.listener = listener;
+        }
+
+        Object lookup(Map<String, Object> tree) {
+            Object current = tree;
+            for (String segment : segments) {
+                if (!(current instanceof Map)) {
+                    return null;
+                }
+                current = ((Map<?, ?>) current).get(segment);
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package core.util.platform.host.file;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of the configuration files; the version increases with every published change
+ */
+public final class ConfigSnapshot {
+    static final ConfigSnapshot EMPTY = new ConfigSnapshot(0, Collections.emptyMap());
+
+    private final long version;
+    private final Map<String, Map<String, Object>> trees;
+
+    private ConfigSnapshot(long version, Map<String, Map<String, Object>> trees) {
+        this.version = version;
+        this.trees = trees;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the immutable tree of a file, null if it is not part of this snapshot
+     */
+    public Map<String, Object> getTree(String filePath) {
+        return trees.get(filePath);
+    }
+
+    /**
+     * Get the files of this snapshot
+     */
+    public Iterable<String> getFilePaths() {
+        return trees.keySet();
+    }
+
+    /**
+     * Copy of this snapshot with the tree of a file replaced
+     *
+     * @param changed whether this is a change, which increases the version, or a file added on first use
+     */
+    ConfigSnapshot with(String filePath, Map<String, Object> tree, boolean changed) {
+        Map<String, Map<String, Object>> copy = new HashMap<>(trees);
+        copy.put(filePath, tree);
+        return new ConfigSnapshot(changed ? version + 1 : version, Collections.unmodifiableMap(copy));
+    }
+}
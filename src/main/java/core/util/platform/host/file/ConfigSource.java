@@ -0,0 +1,95 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A YAML file of the classpath parsed once into an immutable tree, through the persistent {@link ConfigCache}.
+ * Lookups go through {@link ConfigKey} handles, compiled once per key and cached here; a handle re-resolves its
+ * value only after the tree was replaced by {@link #reload()}.
+ */
+public class ConfigSource {
+    private static final Logger LOGGER = LogManager.getLogger(ConfigSource.class);
+
+    private final String filePath;
+    private final Map<String, ConfigKey> keys = new ConcurrentHashMap<>();
+    private final Map<String, ConfigKey> paths = new ConcurrentHashMap<>();
+    private volatile Map<String, Object> tree;
+
+    ConfigSource(String filePath) {
+        this.filePath = filePath;
+        this.tree = parse(filePath);
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Get the parsed file as an immutable tree: maps, lists and scalar values, empty if the file is missing
+     */
+    public Map<String, Object> getTree() {
+        return tree;
+    }
+
+    /**
+     * Whether the file was found and is not empty
+     */
+    public boolean isEmpty() {
+        return tree.isEmpty();
+    }
+
+    /**
+     * Get the handle of a top level key, the key is not split on dots
+     */
+    public ConfigKey key(String key) {
+        return keys.computeIfAbsent(key, name -> new ConfigKey(this, name, new String[] {name}));
+    }
+
+    /**
+     * Get the handle of a nested value addressed with dot notation, e.g. "database.host"
+     */
+    public ConfigKey path(String keyPath) {
+        return paths.computeIfAbsent(keyPath, name -> new ConfigKey(this, name, name.split("\\.")));
+    }
+
+    /**
+     * Parse the file again; handles see the new values from their next lookup
+     *
+     * @return true if the content changed
+     */
+    public boolean reload() {
+        Map<String, Object> reloaded = parse(filePath);
+        if (reloaded.equals(tree)) {
+            return false;
+        }
+        tree = reloaded;
+        return true;
+    }
+
+    private static Map<String, Object> parse(String filePath) {
+        try (InputStream inputStream = ConfigSource.class.getClassLoader().getResourceAsStream(filePath)) {
+            if (inputStream == null) {
+                LOGGER.error("File not found in classpath: " + filePath);
+                return Collections.emptyMap();
+            }
+
+            Map<String, Object> settings = ConfigCache.parse(filePath, inputStream.readAllBytes());
+            if (settings == null) {
+                LOGGER.warn("YAML file is empty: " + filePath);
+                return Collections.emptyMap();
+            }
+
+            LOGGER.info("Successfully loaded configuration from: " + filePath);
+            return settings;
+        } catch (Exception ex) {
+            LOGGER.error("ERROR during loading config file: " + filePath, ex);
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Immutable configuration value with its string, number and boolean forms parsed once
+ */
+public final class ConfigValue {
+    private static final Logger LOGGER = LogManager.getLogger(ConfigValue.class);
+
+    private static final ConfigValue MISSING = new ConfigValue(null, null);
+
+    private final String name;
+    private final Object value;
+    private final String string;
+    private final boolean booleanValue;
+    private final long longValue;
+    private final boolean longValid;
+    private final boolean intValid;
+    private final double doubleValue;
+    private final boolean doubleValid;
+    private volatile boolean warned;
+
+    private ConfigValue(String name, Object value) {
+        this.name = name;
+        this.value = value;
+        this.string = value == null ? null : String.valueOf(value);
+        this.booleanValue = value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(string);
+
+        Long parsedLong = value == null ? null : parseLong(value, string);
+        this.longValid = parsedLong != null;
+        this.longValue = longValid ? parsedLong : 0;
+        this.intValid = longValid && longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE;
+
+        Double parsedDouble = value == null ? null : parseDouble(value, string);
+        this.doubleValid = parsedDouble != null;
+        this.doubleValue = doubleValid ? parsedDouble : 0;
+    }
+
+    /**
+     * Wrap a raw value, null for a missing one
+     *
+     * @param name  the key, used in warnings
+     * @param value the raw value
+     * @return the parsed value
+     */
+    public static ConfigValue of(String name, Object value) {
+        return value == null ? MISSING : new ConfigValue(name, value);
+    }
+
+    /**
+     * Whether the value exists
+     */
+    public boolean isPresent() {
+        return value != null;
+    }
+
+    /**
+     * Get the raw value: an immutable map or list, or a scalar; null if not found
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    public String getString(String defaultValue) {
+        return value == null ? defaultValue : string;
+    }
+
+    public int getInt(int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!intValid) {
+            warnInvalid("integer");
+            return defaultValue;
+        }
+        return (int) longValue;
+    }
+
+    public long getLong(long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!longValid) {
+            warnInvalid("long");
+            return defaultValue;
+        }
+        return longValue;
+    }
+
+    public double getDouble(double defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!doubleValid) {
+            warnInvalid("double");
+            return defaultValue;
+        }
+        return doubleValue;
+    }
+
+    /**
+     * Get the value as boolean; like Boolean.parseBoolean, any value other than "true" is false
+     */
+    public boolean getBoolean(boolean defaultValue) {
+        return value == null ? defaultValue : booleanValue;
+    }
+
+    @Override
+    public String toString() {
+        return string;
+    }
+
+    private void warnInvalid(String type) {
+        if (!warned) {
+            warned = true;
+            LOGGER.warn("Invalid " + type + " value for key '" + name + "': " + value);
+        }
+    }
+
+    private static Long parseLong(Object raw, String text) {
+        if (raw instanceof Integer || raw instanceof Long || raw instanceof Short || raw instanceof Byte) {
+            return ((Number) raw).longValue();
+        }
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(Object raw, String text) {
+        if (raw instanceof Number) {
+            return ((Number) raw).doubleValue();
+        }
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
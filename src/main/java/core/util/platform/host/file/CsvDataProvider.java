@@ -0,0 +1,117 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy CSV rows for TestNG data providers, e.g.
+ * <pre>
+ * &#64;DataProvider(name = "users", parallel = true)
+ * public Iterator&lt;Object[]&gt; users() {
+ *     return CsvDataProvider.rows(Paths.get("src/test/resources/data/users.csv"), true);
+ * }
+ * </pre>
+ * Only the current row is held in memory, the file is closed once the last row has been returned.
+ */
+public class CsvDataProvider {
+    private static final Logger LOGGER = LogManager.getLogger(CsvDataProvider.class);
+
+    private CsvDataProvider() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Stream all rows of a CSV file
+     *
+     * @param csvFile    the UTF-8 comma separated file
+     * @param skipHeader whether the first row is a header
+     * @return lazy iterator of rows, one String argument per column
+     */
+    public static Iterator<Object[]> rows(Path csvFile, boolean skipHeader) {
+        return partition(csvFile, skipHeader, 0, 1);
+    }
+
+    /**
+     * Stream every partitionCount-th row of a CSV file starting at partitionIndex,
+     * so several data providers (or forks) can share one file without overlap
+     *
+     * @param csvFile        the UTF-8 comma separated file
+     * @param skipHeader     whether the first row is a header
+     * @param partitionIndex zero-based index of this partition
+     * @param partitionCount total number of partitions
+     * @return lazy iterator of the rows belonging to this partition
+     */
+    public static Iterator<Object[]> partition(Path csvFile, boolean skipHeader, int partitionIndex,
+            int partitionCount) {
+        if (partitionCount < 1 || partitionIndex < 0 || partitionIndex >= partitionCount) {
+            throw new IllegalArgumentException("Invalid partition " + partitionIndex + " of " + partitionCount);
+        }
+
+        try {
+            CsvReader reader = CsvReader.open(csvFile);
+            if (skipHeader && reader.hasNext()) {
+                reader.next();
+            }
+            LOGGER.info("Streaming CSV rows from: " + csvFile + " (partition " + partitionIndex + " of "
+                    + partitionCount + ")");
+            return new PartitionIterator(reader, partitionIndex, partitionCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open CSV file: " + csvFile, e);
+        }
+    }
+
+    private static final class PartitionIterator implements Iterator<Object[]> {
+        private final CsvReader reader;
+        private final int partitionIndex;
+        private final int partitionCount;
+        private long dataRowIndex;
+        private Object[] nextRow;
+        private boolean closed;
+
+        PartitionIterator(CsvReader reader, int partitionIndex, int partitionCount) {
+            this.reader = reader;
+            this.partitionIndex = partitionIndex;
+            this.partitionCount = partitionCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextRow == null && !closed) {
+                if (!reader.hasNext()) {
+                    close();
+                    break;
+                }
+                String[] row = reader.next();
+                if (dataRowIndex++ % partitionCount == partitionIndex) {
+                    nextRow = row;
+                }
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] row = nextRow;
+            nextRow = null;
+            return row;
+        }
+
+        private void close() {
+            closed = true;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error closing CSV file: " + e.getMessage());
+            }
+        }
+    }
+}
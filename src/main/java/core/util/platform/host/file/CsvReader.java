@@ -0,0 +1,177 @@
+package core.util.platform.host.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming CSV parser reading the file in fixed-size chunks.
+ * Supports RFC 4180 quoting (quoted delimiters, line breaks and doubled quotes)
+ * and, optionally, backslash escapes. Blank lines are skipped.
+ */
+public class CsvReader implements Iterator<String[]>, Closeable {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+
+    private final Reader reader;
+    private final char delimiter;
+    private final boolean backslashEscapes;
+    private final char[] chunk = new char[CHUNK_SIZE];
+    private int chunkLength;
+    private int chunkPosition;
+    private boolean endOfInput;
+    private long rowNumber;
+
+    private String[] nextRow;
+
+    public CsvReader(Reader reader, char delimiter, boolean backslashEscapes) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.backslashEscapes = backslashEscapes;
+    }
+
+    /**
+     * Open a UTF-8 comma separated file
+     */
+    public static CsvReader open(Path csvFile) throws IOException {
+        return new CsvReader(new InputStreamReader(Files.newInputStream(csvFile), StandardCharsets.UTF_8), ',', false);
+    }
+
+    /**
+     * Number of rows returned so far
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow == null) {
+            try {
+                nextRow = readRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return nextRow != null;
+    }
+
+    @Override
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String[] row = nextRow;
+        nextRow = null;
+        rowNumber++;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Parse the next non-blank record, or null at end of input
+     */
+    private String[] readRow() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean fieldStarted = false;
+
+        while (true) {
+            int next = read();
+            if (next < 0) {
+                if (!fieldStarted && fields.isEmpty()) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            }
+
+            char c = (char) next;
+            if (inQuotes) {
+                if (c == QUOTE) {
+                    if (peek() == QUOTE) {
+                        read();
+                        field.append(QUOTE);
+                    } else {
+                        inQuotes = false;
+                    }
+                } else if (c == ESCAPE && backslashEscapes && peek() >= 0) {
+                    field.append((char) read());
+                } else {
+                    field.append(c);
+                }
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (!fieldStarted && fields.isEmpty()) {
+                    // Blank line
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            } else if (c == QUOTE && field.length() == 0) {
+                inQuotes = true;
+                fieldStarted = true;
+            } else if (c == ESCAPE && backslashEscapes && peek() >= 0) {
+                field.append((char) read());
+                fieldStarted = true;
+            } else if (c == '\uFEFF' && rowNumber == 0 && fields.isEmpty() && field.length() == 0) {
+                // Skip byte order mark
+                continue;
+            } else {
+                field.append(c);
+                fieldStarted = true;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk[chunkPosition++];
+    }
+
+    private int peek() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk[chunkPosition];
+    }
+
+    private boolean fill() throws IOException {
+        while (chunkPosition >= chunkLength) {
+            if (endOfInput) {
+                return false;
+            }
+            int length = reader.read(chunk, 0, CHUNK_SIZE);
+            if (length < 0) {
+                endOfInput = true;
+                return false;
+            }
+            chunkLength = length;
+            chunkPosition = 0;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,227 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DirectoryCopier {
+    private static final Logger LOGGER = LogManager.getLogger(DirectoryCopier.class);
+
+    // Number of files copied by a single fork-join leaf task
+    private static final int FILES_PER_TASK = 32;
+
+    private DirectoryCopier() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Copy a directory tree, skipping files whose size and modification time are unchanged
+     *
+     * @param source      the source directory (or single file)
+     * @param destination the destination directory (or file)
+     * @return the copy statistics, never null
+     */
+    public static CopyResult copy(Path source, Path destination) {
+        return copy(source, destination, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Copy a directory tree on the given pool, skipping files whose size and modification time are unchanged
+     *
+     * @param source      the source directory (or single file)
+     * @param destination the destination directory (or file)
+     * @param pool        the pool used to copy files in parallel
+     * @return the copy statistics, never null
+     */
+    public static CopyResult copy(Path source, Path destination, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        CopyResult result = new CopyResult();
+
+        if (source == null || destination == null) {
+            LOGGER.warn("Source or destination path is null");
+            return result;
+        }
+
+        if (!Files.exists(source)) {
+            LOGGER.error("Source does not exist: " + source.toAbsolutePath());
+            return result;
+        }
+
+        List<Path[]> pendingFiles = new ArrayList<>();
+        try {
+            // Walk once: create directories in order and collect file pairs to copy
+            Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(destination.resolve(source.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Path target = destination;
+                    if (source.equals(file)) {
+                        // Single file source, make sure the destination parent exists
+                        Path parent = destination.toAbsolutePath().getParent();
+                        if (parent != null) {
+                            Files.createDirectories(parent);
+                        }
+                    } else {
+                        target = destination.resolve(source.relativize(file).toString());
+                    }
+                    pendingFiles.add(new Path[]{file, target});
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    LOGGER.error("Cannot read: " + file + " - " + exc.getMessage());
+                    result.failed.incrementAndGet();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.error("Error walking source directory: " + e.getMessage(), e);
+            return result;
+        }
+
+        pool.invoke(new CopyTask(pendingFiles, 0, pendingFiles.size(), result));
+
+        result.elapsedNanos = System.nanoTime() - start;
+        LOGGER.info("Copied " + source + " to " + destination + ": " + result);
+        return result;
+    }
+
+    /**
+     * Copy a single file unless the destination already has the same size and modification time
+     */
+    private static void copyFile(Path source, Path target, CopyResult result) {
+        try {
+            BasicFileAttributes sourceAttrs = Files.readAttributes(source, BasicFileAttributes.class);
+            if (isUpToDate(sourceAttrs, target)) {
+                result.skipped.incrementAndGet();
+                return;
+            }
+
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            result.copied.incrementAndGet();
+            result.bytes.addAndGet(sourceAttrs.size());
+            LOGGER.debug("File copied: " + source.getFileName());
+        } catch (IOException e) {
+            result.failed.incrementAndGet();
+            LOGGER.error("Error copying file " + source + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check if target exists with the same size and modification time as the source
+     */
+    private static boolean isUpToDate(BasicFileAttributes sourceAttrs, Path target) {
+        try {
+            BasicFileAttributes targetAttrs = Files.readAttributes(target, BasicFileAttributes.class);
+            return targetAttrs.isRegularFile()
+                    && targetAttrs.size() == sourceAttrs.size()
+                    // Compare in milliseconds, copied timestamps may lose sub-millisecond precision
+                    && targetAttrs.lastModifiedTime().toMillis() == sourceAttrs.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            // Target missing or unreadable, needs copy
+            return false;
+        }
+    }
+
+    /**
+     * Fork-join task splitting the file list until a leaf is small enough to copy sequentially
+     */
+    private static class CopyTask extends RecursiveAction {
+        private final List<Path[]> files;
+        private final int from;
+        private final int to;
+        private final CopyResult result;
+
+        CopyTask(List<Path[]> files, int from, int to, CopyResult result) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FILES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    copyFile(files.get(i)[0], files.get(i)[1], result);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            ForkJoinTask.invokeAll(new CopyTask(files, from, middle, result),
+                    new CopyTask(files, middle, to, result));
+        }
+    }
+
+    /**
+     * Statistics of a directory copy
+     */
+    public static class CopyResult {
+        private final AtomicInteger copied = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+        private long elapsedNanos;
+
+        public int getCopiedFiles() {
+            return copied.get();
+        }
+
+        public int getSkippedFiles() {
+            return skipped.get();
+        }
+
+        public int getFailedFiles() {
+            return failed.get();
+        }
+
+        public long getCopiedBytes() {
+            return bytes.get();
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000L;
+        }
+
+        /**
+         * Get copy throughput in megabytes per second
+         */
+        public double getThroughputMBps() {
+            if (elapsedNanos <= 0) {
+                return 0;
+            }
+            return (bytes.get() / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        public boolean isSuccessful() {
+            return failed.get() == 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d copied, %d unchanged, %d failed, %.1f MB in %d ms (%.1f MB/s)",
+                    getCopiedFiles(), getSkippedFiles(), getFailedFiles(), bytes.get() / (1024.0 * 1024.0),
+                    getElapsedMillis(), getThroughputMBps());
+        }
+    }
+}
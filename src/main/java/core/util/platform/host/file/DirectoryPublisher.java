@@ -0,0 +1,180 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+public class DirectoryPublisher {
+    private static final Logger LOGGER = LogManager.getLogger(DirectoryPublisher.class);
+
+    private DirectoryPublisher() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Point the link path at the target directory by atomically renaming a fresh symbolic link over it
+     *
+     * @param target the directory the link should resolve to
+     * @param link   the published path (e.g. the "latest" report folder)
+     * @return true if the link was published, false if symbolic links are not supported or an error occurred
+     */
+    public static boolean publishSymbolicLink(Path target, Path link) {
+        if (target == null || link == null) {
+            LOGGER.warn("Target or link path is null");
+            return false;
+        }
+
+        Path absoluteLink = link.toAbsolutePath();
+        Path tempLink = siblingOf(absoluteLink, "tmp");
+        try {
+            Files.createDirectories(absoluteLink.getParent());
+            Files.createSymbolicLink(tempLink, target.toAbsolutePath());
+        } catch (UnsupportedOperationException | IOException | SecurityException e) {
+            LOGGER.warn("Symbolic links are not available here: " + e.getMessage());
+            return false;
+        }
+
+        try {
+            // rename(2) cannot replace a real directory, so move a previously copied folder out of the way first
+            moveAsideIfRealDirectory(absoluteLink);
+            Files.move(tempLink, absoluteLink, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("Published " + absoluteLink + " -> " + target.toAbsolutePath());
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Error publishing symbolic link " + absoluteLink + ": " + e.getMessage(), e);
+            deleteQuietly(tempLink);
+            return false;
+        }
+    }
+
+    /**
+     * Mirror the source directory at the link path using hard links, then swap the mirror into place
+     *
+     * @param source the directory to publish
+     * @param link   the published path (e.g. the "latest" report folder)
+     * @return true if the mirror was published, false if hard links are not supported or an error occurred
+     */
+    public static boolean publishHardLinkMirror(Path source, Path link) {
+        if (source == null || link == null) {
+            LOGGER.warn("Source or link path is null");
+            return false;
+        }
+
+        Path absoluteSource = source.toAbsolutePath();
+        Path absoluteLink = link.toAbsolutePath();
+        Path staging = siblingOf(absoluteLink, "staging");
+        try {
+            Files.walkFileTree(absoluteSource, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(staging.resolve(absoluteSource.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.createLink(staging.resolve(absoluteSource.relativize(file).toString()), file);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (UnsupportedOperationException | IOException | SecurityException e) {
+            LOGGER.warn("Hard links are not available here: " + e.getMessage());
+            deleteTree(staging);
+            return false;
+        }
+
+        try {
+            // Two renames: the published path is briefly missing, but never partially populated
+            Path previous = Files.exists(absoluteLink, LinkOption.NOFOLLOW_LINKS) ? siblingOf(absoluteLink, "old") : null;
+            if (previous != null) {
+                Files.move(absoluteLink, previous);
+            }
+            AtomicFiles.move(staging, absoluteLink);
+            if (previous != null) {
+                deleteTree(previous);
+            }
+            LOGGER.info("Published hard link mirror of " + absoluteSource + " at " + absoluteLink);
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Error publishing hard link mirror " + absoluteLink + ": " + e.getMessage(), e);
+            deleteTree(staging);
+            return false;
+        }
+    }
+
+    /**
+     * Remove the published path if it is a symbolic link, so later writes do not go through to the link target
+     */
+    public static void unlinkIfSymbolicLink(Path link) {
+        if (link == null) {
+            return;
+        }
+
+        Path absoluteLink = link.toAbsolutePath();
+        if (Files.isSymbolicLink(absoluteLink)) {
+            deleteQuietly(absoluteLink);
+            LOGGER.info("Removed symbolic link: " + absoluteLink);
+        }
+    }
+
+    /**
+     * Move a real (non-link) directory at the given path aside and delete it
+     */
+    private static void moveAsideIfRealDirectory(Path path) throws IOException {
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            Path previous = siblingOf(path, "old");
+            Files.move(path, previous);
+            deleteTree(previous);
+        }
+    }
+
+    /**
+     * Build a hidden sibling path unique to this call, e.g. ".latest.tmp-123456"
+     */
+    private static Path siblingOf(Path path, String suffix) {
+        return path.resolveSibling("." + path.getFileName() + "." + suffix + "-" + System.nanoTime());
+    }
+
+    /**
+     * Delete a directory tree without following symbolic links
+     */
+    private static void deleteTree(Path root) {
+        if (!Files.exists(root, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete: " + root + " - " + e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete: " + path + " - " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Waits for browser downloads to complete using file system events instead of fixed sleeps
+ */
+public class DownloadMonitor {
+    private static final Logger LOGGER = LogManager.getLogger(DownloadMonitor.class);
+
+    // Temporary suffixes used by Chrome/Edge, Firefox and Safari while a download is in progress
+    private static final List<String> PARTIAL_SUFFIXES = Arrays.asList(".crdownload", ".part", ".download");
+    private static final long SETTLE_MILLIS = 300;
+
+    private static final ThreadLocal<Path> ISOLATED_DIRECTORY = new ThreadLocal<>();
+
+    private DownloadMonitor() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Wait until the named file is downloaded completely
+     *
+     * @param downloadDirectory the browser download directory
+     * @param fileName          the expected file name
+     * @param timeoutMillis     maximum time to wait
+     * @return the downloaded file, or empty on timeout
+     */
+    public static Optional<Path> awaitDownload(Path downloadDirectory, String fileName, long timeoutMillis) {
+        return awaitDownload(downloadDirectory, name -> name.equals(fileName), timeoutMillis);
+    }
+
+    /**
+     * Wait until a file whose name is accepted by the matcher is downloaded completely: it exists, no partial
+     * download file for it remains, and its size has been stable for a short settle period
+     *
+     * @param downloadDirectory the browser download directory
+     * @param nameMatcher       predicate on the file name
+     * @param timeoutMillis     maximum time to wait
+     * @return the downloaded file, or empty on timeout
+     */
+    public static Optional<Path> awaitDownload(Path downloadDirectory, Predicate<String> nameMatcher,
+            long timeoutMillis) {
+        long start = System.nanoTime();
+        try {
+            Optional<Path> downloaded = FileWatchHelper.awaitStableFile(downloadDirectory,
+                    file -> isCompleteDownload(file, nameMatcher), timeoutMillis, SETTLE_MILLIS);
+            long elapsed = (System.nanoTime() - start) / 1_000_000L;
+            if (downloaded.isPresent()) {
+                LOGGER.info("Download completed in " + elapsed + " ms: " + downloaded.get());
+            } else {
+                LOGGER.warn("Download not completed within " + timeoutMillis + " ms in: " + downloadDirectory);
+            }
+            return downloaded;
+        } catch (IOException e) {
+            LOGGER.error("Error watching download directory " + downloadDirectory + ": " + e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Get a download directory private to the current thread, so parallel browsers do not see each other's files.
+     * Pass it to the browser options when creating the driver.
+     *
+     * @param baseDirectory the shared download root
+     * @return the per-thread directory, created on first use
+     */
+    public static Path getIsolatedDirectory(Path baseDirectory) {
+        Path directory = ISOLATED_DIRECTORY.get();
+        if (directory != null && directory.startsWith(baseDirectory.toAbsolutePath())) {
+            return directory;
+        }
+
+        Thread thread = Thread.currentThread();
+        directory = baseDirectory.toAbsolutePath()
+                .resolve("downloads-" + thread.getId() + "-" + System.nanoTime());
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            LOGGER.error("Failed to create download directory: " + directory, e);
+        }
+        ISOLATED_DIRECTORY.set(directory);
+        return directory;
+    }
+
+    /**
+     * Delete the current thread's download directory in the background
+     */
+    public static void releaseIsolatedDirectory() {
+        Path directory = ISOLATED_DIRECTORY.get();
+        ISOLATED_DIRECTORY.remove();
+        if (directory != null) {
+            AsyncFileCleaner.deleteTree(directory, true);
+        }
+    }
+
+    private static boolean isCompleteDownload(Path file, Predicate<String> nameMatcher) {
+        String name = file.getFileName().toString();
+        if (isPartial(name) || !nameMatcher.test(name)) {
+            return false;
+        }
+        for (String suffix : PARTIAL_SUFFIXES) {
+            if (Files.exists(file.resolveSibling(name + suffix))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPartial(String name) {
+        for (String suffix : PARTIAL_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
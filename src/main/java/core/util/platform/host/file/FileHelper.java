@@ -9,23 +9,22 @@ import java.awt.*;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.KeyEvent;
 import java.io.*;
-import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
-import java.util.zip.ZipInputStream;
 
 public class FileHelper {
     private static final Logger LOGGER = LogManager.getLogger(FileHelper.class.getSimpleName());
@@ -114,16 +113,43 @@ public class FileHelper {
     }
 
     /**
-     * Replace text in file
+     * Delete all files matching pattern in folder in the background
+     */
+    public static CompletableFuture<Integer> deleteAllFilesInFolderAsync(String folderPath) {
+        if (folderPath == null || folderPath.isEmpty()) {
+            LOGGER.warn("Folder path is null or empty");
+            return CompletableFuture.completedFuture(0);
+        }
+
+        return AsyncFileCleaner.deleteChildren(Paths.get(folderPath),
+                path -> path.getFileName().toString().matches("revert.*\\.sql") && Files.isRegularFile(path));
+    }
+
+    /**
+     * Delete screenshots from ReportNG folder in the background
+     */
+    public static CompletableFuture<Integer> deleteScreenshotsAsync() {
+        Path screenshotsFolder = Paths.get(System.getProperty("user.dir"), "ReportNGScreenShots");
+        return AsyncFileCleaner.deleteChildren(screenshotsFolder, Files::isRegularFile);
+    }
+
+    /**
+     * Replace text in file, key is a regular expression matched line by line
      */
     public static void replaceTextFile(String inputFile, String outFile, String key, String newKey) {
         try {
-            Path path = Paths.get(inputFile);
-            Charset charset = StandardCharsets.UTF_8;
-            String content = new String(Files.readAllBytes(path), charset);
-            content = content.replaceAll(key, newKey);
-            Files.write(Paths.get(outFile), content.getBytes(charset));
-            LOGGER.info("File updated: " + outFile);
+            TextRewriter.replacePatterns(Paths.get(inputFile), Paths.get(outFile), Collections.singletonMap(key, newKey));
+        } catch (Exception e) {
+            LOGGER.error("Error replacing text in file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replace many literal keys in file in a single pass
+     */
+    public static void replaceTextFile(String inputFile, String outFile, Map<String, String> replacements) {
+        try {
+            TextRewriter.replaceLiterals(Paths.get(inputFile), Paths.get(outFile), replacements);
         } catch (Exception e) {
             LOGGER.error("Error replacing text in file: " + e.getMessage(), e);
         }
@@ -133,39 +159,19 @@ public class FileHelper {
      * Unzip file to download folder
      */
     public static boolean unzipFileOnDownloadFolder(String fileNameZip, String downloadFolder) {
+        return unzipFileOnDownloadFolder(fileNameZip, downloadFolder, entryName -> true);
+    }
+
+    /**
+     * Unzip only the entries accepted by the filter to download folder
+     */
+    public static boolean unzipFileOnDownloadFolder(String fileNameZip, String downloadFolder,
+            Predicate<String> entryFilter) {
         String zipFilePath = convertDirectory(downloadFolder.concat(fileNameZip));
         String destDir = convertDirectory(downloadFolder);
-        File dir = new File(destDir);
-
-        if (!dir.exists() && !dir.mkdirs()) {
-            LOGGER.error("Failed to create directory: " + destDir);
-            return false;
-        }
-
-        byte[] buffer = new byte[1024];
-        try (FileInputStream fis = new FileInputStream(zipFilePath);
-                ZipInputStream zis = new ZipInputStream(fis)) {
 
-            ZipEntry ze;
-            while ((ze = zis.getNextEntry()) != null) {
-                String fileName = ze.getName();
-                LOGGER.info("Unzipping: " + fileName);
-                File newFile = new File(destDir + File.separator + fileName);
-
-                // Create parent directories
-                File parent = newFile.getParentFile();
-                if (parent != null && !parent.exists() && !parent.mkdirs()) {
-                    LOGGER.warn("Failed to create parent directory: " + parent.getAbsolutePath());
-                }
-
-                try (FileOutputStream fos = new FileOutputStream(newFile)) {
-                    int len;
-                    while ((len = zis.read(buffer)) > 0) {
-                        fos.write(buffer, 0, len);
-                    }
-                }
-                zis.closeEntry();
-            }
+        try {
+            ZipExtractor.extract(Paths.get(zipFilePath), Paths.get(destDir), entryFilter);
             LOGGER.info("Unzip completed successfully");
             return true;
         } catch (IOException e) {
@@ -183,21 +189,21 @@ public class FileHelper {
             return false;
         }
 
-        try (ZipFile sourceZipFile = new ZipFile(filePath)) {
-            LOGGER.info("Zip file size: " + sourceZipFile.size());
+        try {
+            ZipIndex zipIndex = ZipIndex.open(Paths.get(filePath));
+            LOGGER.info("Zip file size: " + zipIndex.size());
             LOGGER.info("Searching for: " + listFileContainName);
 
-            if (listFileContainName.size() != sourceZipFile.size()) {
+            if (listFileContainName.size() != zipIndex.size()) {
                 LOGGER.error("File count mismatch. Expected: " + listFileContainName.size() +
-                        ", Found: " + sourceZipFile.size());
+                        ", Found: " + zipIndex.size());
                 return false;
             }
 
-            for (String fileContainName : listFileContainName) {
-                if (!searchFileOnZipDownloadFile(fileContainName, filePath)) {
-                    LOGGER.error("File not found: " + fileContainName);
-                    return false;
-                }
+            List<String> missingFiles = zipIndex.findMissing(listFileContainName);
+            if (!missingFiles.isEmpty()) {
+                LOGGER.error("File not found: " + missingFiles);
+                return false;
             }
             return true;
         } catch (IOException e) {
@@ -215,15 +221,10 @@ public class FileHelper {
             return false;
         }
 
-        try (ZipFile sourceZipFile = new ZipFile(filePath)) {
-            Enumeration<? extends ZipEntry> entries = sourceZipFile.entries();
-
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                if (entry.getName().contains(fileContainName)) {
-                    LOGGER.info("Found: " + entry.getName());
-                    return true;
-                }
+        try {
+            if (ZipIndex.open(Paths.get(filePath)).containsSubstring(fileContainName)) {
+                LOGGER.info("Found: " + fileContainName);
+                return true;
             }
             LOGGER.warn("File not found in zip: " + fileContainName);
             return false;
@@ -264,6 +265,28 @@ public class FileHelper {
         }
     }
 
+    /**
+     * Delete all files in directory in the background; like {@link #deleteAllFileExists}, subdirectories are only
+     * deleted when empty
+     */
+    public static CompletableFuture<Integer> deleteAllFileExistsAsync(String pathLocation) {
+        if (pathLocation == null || pathLocation.isEmpty()) {
+            LOGGER.warn("Path location is null or empty");
+            return CompletableFuture.completedFuture(0);
+        }
+
+        return AsyncFileCleaner.deleteChildren(Paths.get(pathLocation),
+                path -> !Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS) || isEmptyDirectory(path));
+    }
+
+    private static boolean isEmptyDirectory(Path directory) {
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+            return !children.iterator().hasNext();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     /**
      * Check if file exists with optional deletion
      */
@@ -293,7 +316,7 @@ public class FileHelper {
     }
 
     /**
-     * Calculate MD5 checksum of file
+     * Calculate MD5 checksum of file, cached while the file size and modification time are unchanged
      */
     public static String calculateMD5(String filePath) {
         if (filePath == null || filePath.isEmpty()) {
@@ -301,19 +324,13 @@ public class FileHelper {
             return null;
         }
 
-        try {
-            File file = new File(filePath);
-            if (!file.exists()) {
-                LOGGER.error("File does not exist: " + filePath);
-                return null;
-            }
-
-            MessageDigest md5Digest = MessageDigest.getInstance("MD5");
-            return getFileChecksum(md5Digest, file);
-        } catch (NoSuchAlgorithmException | IOException e) {
-            LOGGER.error("Error calculating MD5: " + e.getMessage(), e);
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            LOGGER.error("File does not exist: " + filePath);
             return null;
         }
+
+        return ChecksumService.checksum(path, ChecksumService.Algorithm.MD5);
     }
 
     /**
@@ -358,7 +375,7 @@ public class FileHelper {
     }
 
     /**
-     * Get value from properties file
+     * Get value from properties file, parsed once and cached until the file changes
      */
     public static String getValuePropertiesFile(String filePath, String key) {
         if (filePath == null || key == null) {
@@ -366,14 +383,16 @@ public class FileHelper {
             return null;
         }
 
-        Properties prop = new Properties();
-        try (InputStream input = new FileInputStream(filePath)) {
-            prop.load(input);
-            String value = prop.getProperty(key);
-            LOGGER.info("Property " + key + " = " + value);
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            LOGGER.error("Properties file not found: " + filePath);
+            return null;
+        }
+
+        try {
+            String value = PropertiesStore.get(path, key);
+            LOGGER.debug("Property " + key + " = " + value);
             return value;
-        } catch (FileNotFoundException e) {
-            LOGGER.error("Properties file not found: " + filePath, e);
         } catch (IOException e) {
             LOGGER.error("Error reading properties file: " + e.getMessage(), e);
         }
@@ -381,7 +400,7 @@ public class FileHelper {
     }
 
     /**
-     * Set value in properties file
+     * Set value in properties file, written atomically
      */
     public static void setValuePropertiesFile(String filePath, String key, String value) {
         if (filePath == null || key == null || value == null) {
@@ -389,23 +408,23 @@ public class FileHelper {
             return;
         }
 
-        Properties prop = new Properties();
-        try (FileInputStream fis = new FileInputStream(filePath);
-                FileOutputStream fos = new FileOutputStream(filePath)) {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            LOGGER.error("Properties file not found: " + filePath);
+            return;
+        }
 
-            prop.load(fis);
-            prop.setProperty(key, value);
-            prop.store(fos, "Updated: " + key);
+        try {
+            PropertiesStore.set(path, key, value);
+            PropertiesStore.flush(path);
             LOGGER.info("Property set: " + key + " = " + value);
-        } catch (FileNotFoundException e) {
-            LOGGER.error("Properties file not found: " + filePath, e);
         } catch (IOException e) {
             LOGGER.error("Error updating properties file: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Get CSV file data
+     * Get CSV file data (first field of the first row)
      */
     public static String getCSVFile(String fileName, String filePath) {
         if (fileName == null || filePath == null) {
@@ -413,19 +432,16 @@ public class FileHelper {
             return null;
         }
 
-        try {
-            String csvFile = filePath + File.separator + fileName + ".csv";
-            try (BufferedReader br = new BufferedReader(new FileReader(csvFile))) {
-                String line = br.readLine();
-                if (line != null) {
-                    String[] csvData = line.split(",");
-                    LOGGER.info("CSV data: " + csvData[0]);
-                    return csvData[0];
-                }
+        String csvFile = filePath + File.separator + fileName + ".csv";
+        try (CsvReader reader = CsvReader.open(Paths.get(csvFile))) {
+            if (reader.hasNext()) {
+                String[] csvData = reader.next();
+                LOGGER.info("CSV data: " + csvData[0]);
+                return csvData[0];
             }
-        } catch (FileNotFoundException e) {
+        } catch (FileNotFoundException | NoSuchFileException e) {
             LOGGER.error("CSV file not found: " + fileName, e);
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             LOGGER.error("Error reading CSV file: " + e.getMessage(), e);
         }
         return null;
@@ -447,6 +463,18 @@ public class FileHelper {
         }
     }
 
+    /**
+     * Wait for the download to complete, then verify it exists and checksum
+     */
+    public static void verifyDownloadFileSuccessAndChecksum(String fileName, String folderDownload,
+            long timeoutMillis) {
+        Path downloadFolder = Paths.get(convertDirectory(folderDownload));
+        Optional<Path> downloadedFile = DownloadMonitor.awaitDownload(downloadFolder, fileName, timeoutMillis);
+        Assert.assertTrue(downloadedFile.isPresent(),
+                "File should be downloaded within " + timeoutMillis + " ms: " + fileName);
+        verifyDownloadFileSuccessAndChecksum(fileName, folderDownload);
+    }
+
     /**
      * Verify download file does not exist
      */
@@ -473,26 +501,6 @@ public class FileHelper {
         }
     }
 
-    /**
-     * Calculate file checksum
-     */
-    private static String getFileChecksum(MessageDigest digest, File file) throws IOException {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            byte[] byteArray = new byte[1024];
-            int bytesCount;
-            while ((bytesCount = fis.read(byteArray)) != -1) {
-                digest.update(byteArray, 0, bytesCount);
-            }
-
-            byte[] bytes = digest.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte b : bytes) {
-                sb.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
-            }
-            return sb.toString();
-        }
-    }
-
     /**
      * Create directory
      */
@@ -514,7 +522,7 @@ public class FileHelper {
     }
 
     /**
-     * Copy directory recursively
+     * Copy directory recursively, skipping files that are unchanged in destination
      */
     public static void copyDirectory(File srcFolder, File destFolder) {
         if (srcFolder == null || destFolder == null) {
@@ -527,30 +535,9 @@ public class FileHelper {
             return;
         }
 
-        if (srcFolder.isDirectory()) {
-            if (!destFolder.exists() && !destFolder.mkdirs()) {
-                LOGGER.error("Failed to create destination directory");
-                return;
-            }
-
-            String[] files = srcFolder.list();
-            if (files != null) {
-                for (String file : files) {
-                    copyDirectory(new File(srcFolder, file), new File(destFolder, file));
-                }
-            }
-        } else {
-            try (InputStream in = new FileInputStream(srcFolder);
-                    OutputStream out = new FileOutputStream(destFolder)) {
-                byte[] buffer = new byte[1024];
-                int length;
-                while ((length = in.read(buffer)) > 0) {
-                    out.write(buffer, 0, length);
-                }
-                LOGGER.info("File copied: " + srcFolder.getName());
-            } catch (IOException e) {
-                LOGGER.error("Error copying file: " + e.getMessage(), e);
-            }
+        DirectoryCopier.CopyResult result = DirectoryCopier.copy(srcFolder.toPath(), destFolder.toPath());
+        if (!result.isSuccessful()) {
+            LOGGER.error("Failed to copy " + result.getFailedFiles() + " file(s) from: " + srcFolder.getAbsolutePath());
         }
     }
 
@@ -579,6 +566,19 @@ public class FileHelper {
         }
     }
 
+    /**
+     * Delete directory recursively in the background; the directory is renamed aside first,
+     * so its path can be recreated immediately
+     */
+    public static CompletableFuture<Integer> deleteDirectoryAsync(File file) {
+        if (file == null || !file.exists()) {
+            LOGGER.warn("File is null or does not exist");
+            return CompletableFuture.completedFuture(0);
+        }
+
+        return AsyncFileCleaner.deleteTree(file.toPath(), true);
+    }
+
     /**
      * Get all files with specific extension
      */
@@ -588,11 +588,7 @@ public class FileHelper {
             return Collections.emptyList();
         }
 
-        List<File> listCurrentFileInDir = getAllFileInFolder(dir);
-        return listCurrentFileInDir.isEmpty() ? Collections.emptyList()
-                : listCurrentFileInDir.stream()
-                        .filter(f -> f.getAbsolutePath().endsWith(extension))
-                        .collect(Collectors.toList());
+        return collectFiles(FileQuery.in(dir).nameEndsWith(extension));
     }
 
     /**
@@ -604,13 +600,25 @@ public class FileHelper {
             return Collections.emptyList();
         }
 
-        try {
-            try (Stream<Path> paths = Files.walk(Paths.get(dir))) {
-                return paths.filter(p -> Files.isRegularFile(p, new LinkOption[0]))
-                        .map(Path::toFile)
-                        .collect(Collectors.toList());
-            }
-        } catch (IOException e) {
+        return collectFiles(FileQuery.in(dir));
+    }
+
+    /**
+     * Find files in folder matching a glob, lazily; the stream must be closed
+     */
+    public static Stream<Path> findFiles(String dir, String glob) {
+        if (dir == null || dir.isEmpty() || glob == null) {
+            LOGGER.warn("Directory or glob is null or empty");
+            return Stream.empty();
+        }
+
+        return FileQuery.in(dir).glob(glob).stream();
+    }
+
+    private static List<File> collectFiles(FileQuery query) {
+        try (Stream<Path> paths = query.stream()) {
+            return paths.map(Path::toFile).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
             LOGGER.error("Error listing files in directory: " + e.getMessage(), e);
             return Collections.emptyList();
         }
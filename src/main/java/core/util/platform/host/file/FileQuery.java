@@ -0,0 +1,209 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Lazy query over a directory tree.
+ * Results are streamed while the tree is walked, and the attributes read by the walk are reused by the filters,
+ * so no extra stat call is made per file. The returned stream holds open directories and must be closed.
+ *
+ * <pre>
+ * try (Stream&lt;Path&gt; reports = FileQuery.in(dir).glob("**&#47;*.html").modifiedAfter(since).stream()) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class FileQuery {
+    private static final Logger LOGGER = LogManager.getLogger(FileQuery.class);
+
+    private final Path root;
+    private int maxDepth = Integer.MAX_VALUE;
+    private boolean filesOnly = true;
+    private boolean parallel;
+    private BiPredicate<Path, BasicFileAttributes> filter = (path, attrs) -> true;
+
+    private FileQuery(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Start a query over the tree below the given directory
+     */
+    public static FileQuery in(Path root) {
+        return new FileQuery(root);
+    }
+
+    /**
+     * Start a query over the tree below the given directory
+     */
+    public static FileQuery in(String root) {
+        return new FileQuery(Path.of(root));
+    }
+
+    /**
+     * Only visit entries up to the given depth, the direct children of the root are at depth 1
+     */
+    public FileQuery maxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Whether to return regular files only (the default) or directories and other entries too
+     */
+    public FileQuery filesOnly(boolean filesOnly) {
+        this.filesOnly = filesOnly;
+        return this;
+    }
+
+    /**
+     * Walk the direct subdirectories of the root in parallel; worth it for wide trees only.
+     * The result order is not defined in this mode.
+     */
+    public FileQuery parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Keep entries matching a glob. A pattern containing '/' is matched against the path relative to the root
+     * (e.g. "screenshots/**&#47;*.png"), other patterns against the file name (e.g. "*.{csv,xlsx}").
+     */
+    public FileQuery glob(String pattern) {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        if (pattern.indexOf('/') >= 0) {
+            return where((path, attrs) -> matcher.matches(root.relativize(path)));
+        }
+        return where((path, attrs) -> path.getFileName() != null && matcher.matches(path.getFileName()));
+    }
+
+    /**
+     * Keep entries whose file name fully matches the regular expression
+     */
+    public FileQuery nameMatches(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        return where((path, attrs) -> path.getFileName() != null
+                && pattern.matcher(path.getFileName().toString()).matches());
+    }
+
+    /**
+     * Keep entries whose file name ends with the suffix, e.g. an extension
+     */
+    public FileQuery nameEndsWith(String suffix) {
+        return where((path, attrs) -> path.getFileName() != null && path.getFileName().toString().endsWith(suffix));
+    }
+
+    /**
+     * Keep entries of at least the given size in bytes
+     */
+    public FileQuery minSize(long bytes) {
+        return where((path, attrs) -> attrs.size() >= bytes);
+    }
+
+    /**
+     * Keep entries of at most the given size in bytes
+     */
+    public FileQuery maxSize(long bytes) {
+        return where((path, attrs) -> attrs.size() <= bytes);
+    }
+
+    /**
+     * Keep entries modified after the given instant
+     */
+    public FileQuery modifiedAfter(Instant instant) {
+        return where((path, attrs) -> attrs.lastModifiedTime().toInstant().isAfter(instant));
+    }
+
+    /**
+     * Keep entries modified before the given instant
+     */
+    public FileQuery modifiedBefore(Instant instant) {
+        return where((path, attrs) -> attrs.lastModifiedTime().toInstant().isBefore(instant));
+    }
+
+    /**
+     * Keep entries accepted by a predicate on the path and its attributes, combined with the other filters
+     */
+    public FileQuery where(BiPredicate<Path, BasicFileAttributes> predicate) {
+        filter = filter.and(predicate);
+        return this;
+    }
+
+    /**
+     * Run the query; nothing is read before the stream is consumed
+     *
+     * @return lazy stream of matching paths, empty if the root does not exist
+     */
+    public Stream<Path> stream() {
+        if (!Files.exists(root)) {
+            LOGGER.warn("Directory does not exist: " + root);
+            return Stream.empty();
+        }
+
+        BiPredicate<Path, BasicFileAttributes> matcher = filesOnly
+                ? (path, attrs) -> attrs.isRegularFile() && filter.test(path, attrs)
+                : filter;
+        if (!parallel || maxDepth < 1 || !Files.isDirectory(root)) {
+            return find(root, maxDepth, matcher);
+        }
+
+        // The root itself, then each child subtree on its own worker
+        Stream<Path> rootEntry = matcher.test(root, readAttributes(root)) ? Stream.of(root) : Stream.empty();
+        Stream<Path> subtrees = listChildren().parallelStream()
+                .flatMap(child -> find(child, maxDepth - 1, matcher));
+        return Stream.concat(rootEntry, subtrees);
+    }
+
+    /**
+     * Run the query and count the matches
+     */
+    public long count() {
+        try (Stream<Path> paths = stream()) {
+            return paths.count();
+        }
+    }
+
+    private static Stream<Path> find(Path start, int depth, BiPredicate<Path, BasicFileAttributes> matcher) {
+        try {
+            return Files.find(start, depth, matcher);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> listChildren() {
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root)) {
+            for (Path entry : entries) {
+                children.add(entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return children;
+    }
+}
@@ -0,0 +1,147 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+public class FileWatchHelper {
+    private static final Logger LOGGER = LogManager.getLogger(FileWatchHelper.class);
+
+    // Some WatchService implementations poll, e.g. every 10 s on macOS, so the directory is rescanned this often too
+    private static final long RESCAN_INTERVAL_MILLIS = 200;
+
+    private FileWatchHelper() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Block until a file accepted by the predicate exists in the directory and its size and modification time
+     * have not changed for the settle period. Wakes up on file system events, and rescans the directory at the latest
+     * every 200 ms for watch services that report events late.
+     *
+     * @param directory     the directory to watch (not recursive)
+     * @param accept        predicate deciding if a file is the one waited for and is complete
+     * @param timeoutMillis maximum time to wait
+     * @param settleMillis  how long the file must stay unchanged
+     * @return the settled file, or empty on timeout
+     * @throws IOException if the directory cannot be watched
+     */
+    public static Optional<Path> awaitStableFile(Path directory, Predicate<Path> accept, long timeoutMillis,
+            long settleMillis) throws IOException {
+        Files.createDirectories(directory);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Map<Path, Observation> candidates = new HashMap<>();
+
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            // Register first, then scan, so a file landing in between is not missed
+            scan(directory, candidates);
+
+            while (true) {
+                Optional<Path> settled = findSettled(candidates, accept, settleMillis);
+                if (settled.isPresent()) {
+                    return settled;
+                }
+
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return Optional.empty();
+                }
+
+                long waitNanos = Math.min(remainingNanos, TimeUnit.MILLISECONDS.toNanos(candidates.isEmpty()
+                        ? RESCAN_INTERVAL_MILLIS : Math.min(settleMillis, RESCAN_INTERVAL_MILLIS)));
+                WatchKey key = watchService.poll(waitNanos, TimeUnit.NANOSECONDS);
+                if (key == null) {
+                    // No event in time, a slow watch service may not have reported the file yet
+                    scan(directory, candidates);
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scan(directory, candidates);
+                    } else {
+                        candidates.putIfAbsent(directory.resolve((Path) event.context()), new Observation());
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while watching: " + directory);
+            return Optional.empty();
+        }
+    }
+
+    private static void scan(Path directory, Map<Path, Observation> candidates) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                candidates.putIfAbsent(file, new Observation());
+            }
+        }
+    }
+
+    /**
+     * Check the candidates, returning one that is accepted and unchanged for the settle period
+     */
+    private static Optional<Path> findSettled(Map<Path, Observation> candidates, Predicate<Path> accept,
+            long settleMillis) {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, Observation>> iterator = candidates.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Observation> candidate = iterator.next();
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(candidate.getKey(), BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Deleted or renamed, e.g. a partial download file
+                iterator.remove();
+                continue;
+            }
+            if (!attrs.isRegularFile() || !accept.test(candidate.getKey())) {
+                candidate.getValue().reset();
+                continue;
+            }
+
+            Observation observation = candidate.getValue();
+            long modified = attrs.lastModifiedTime().toMillis();
+            if (observation.sinceNanos == 0 || observation.size != attrs.size() || observation.modified != modified) {
+                observation.size = attrs.size();
+                observation.modified = modified;
+                observation.sinceNanos = now;
+            } else if (now - observation.sinceNanos >= TimeUnit.MILLISECONDS.toNanos(settleMillis)) {
+                return Optional.of(candidate.getKey());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Last seen size and modification time of a candidate, and since when they are unchanged
+     */
+    private static final class Observation {
+        private long size = -1;
+        private long modified = -1;
+        private long sinceNanos;
+
+        void reset() {
+            sinceNanos = 0;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package core.util.platform.host.file;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over a fixed set of literal patterns.
+ * Finds every occurrence of every pattern in a single pass over the text,
+ * and can be stepped one character at a time for streaming input.
+ */
+final class LiteralMatcher {
+    static final int ROOT = 0;
+    static final int NO_MATCH = -1;
+
+    private final String[] patterns;
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<Integer> failure = new ArrayList<>();
+    private final List<Integer> depth = new ArrayList<>();
+    // Longest pattern ending exactly at a state, and the next state on the failure chain that ends a pattern
+    private final List<Integer> terminal = new ArrayList<>();
+    private final List<Integer> dictionaryLink = new ArrayList<>();
+
+    LiteralMatcher(List<String> patterns) {
+        this.patterns = patterns.toArray(new String[0]);
+        newState(0);
+        for (int i = 0; i < this.patterns.length; i++) {
+            addPattern(i);
+        }
+        buildLinks();
+    }
+
+    int patternCount() {
+        return patterns.length;
+    }
+
+    int patternLength(int patternIndex) {
+        return patterns[patternIndex].length();
+    }
+
+    /**
+     * Number of characters of the current partial match, i.e. characters that may still become part of a match
+     */
+    int depth(int state) {
+        return depth.get(state);
+    }
+
+    /**
+     * Follow one character from the given state
+     */
+    int next(int state, char c) {
+        int current = state;
+        while (true) {
+            Integer target = transitions.get(current).get(c);
+            if (target != null) {
+                return target;
+            }
+            if (current == ROOT) {
+                return ROOT;
+            }
+            current = failure.get(current);
+        }
+    }
+
+    /**
+     * Longest pattern ending at the given state, or NO_MATCH
+     */
+    int longestMatch(int state) {
+        int own = terminal.get(state);
+        if (own != NO_MATCH) {
+            return own;
+        }
+        int link = dictionaryLink.get(state);
+        return link == NO_MATCH ? NO_MATCH : terminal.get(link);
+    }
+
+    /**
+     * Mark in the given set every pattern that occurs in the text
+     */
+    void collectMatches(CharSequence text, BitSet found) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            for (int s = terminal.get(state) != NO_MATCH ? state : dictionaryLink.get(state);
+                    s != NO_MATCH; s = dictionaryLink.get(s)) {
+                found.set(terminal.get(s));
+            }
+        }
+    }
+
+    private int newState(int stateDepth) {
+        transitions.add(new HashMap<>());
+        failure.add(ROOT);
+        depth.add(stateDepth);
+        terminal.add(NO_MATCH);
+        dictionaryLink.add(NO_MATCH);
+        return transitions.size() - 1;
+    }
+
+    private void addPattern(int patternIndex) {
+        String pattern = patterns[patternIndex];
+        if (pattern.isEmpty()) {
+            return;
+        }
+        int state = ROOT;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            Integer target = transitions.get(state).get(c);
+            if (target == null) {
+                target = newState(i + 1);
+                transitions.get(state).put(c, target);
+            }
+            state = target;
+        }
+        if (terminal.get(state) == NO_MATCH) {
+            terminal.set(state, patternIndex);
+        }
+    }
+
+    private void buildLinks() {
+        Queue<Integer> queue = new ArrayDeque<>(transitions.get(ROOT).values());
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fail = next(failure.get(state), edge.getKey());
+                failure.set(child, fail == child ? ROOT : fail);
+                int link = failure.get(child);
+                dictionaryLink.set(child, terminal.get(link) != NO_MATCH ? link : dictionaryLink.get(link));
+                queue.add(child);
+            }
+        }
+    }
+}
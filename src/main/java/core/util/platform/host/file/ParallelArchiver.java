@@ -0,0 +1,733 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Packs a directory tree into a zip or tar.gz archive, deflating in parallel blocks like pigz.
+ * Files are read once, in order, on the calling thread; every 128 KB block is compressed on a worker with the
+ * previous 32 KB as dictionary, and the blocks are written back in order. Already compressed files (images,
+ * videos, archives) are stored as they are. A SHA-256 manifest of all files is added as the last entry and written
+ * next to the archive.
+ */
+public class ParallelArchiver {
+    private static final Logger LOGGER = LogManager.getLogger(ParallelArchiver.class);
+
+    public static final String MANIFEST_NAME = "MANIFEST.sha256";
+    public static final String MANIFEST_SUFFIX = ".manifest.sha256";
+
+    private static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int COMPRESSION_LEVEL = Deflater.DEFAULT_COMPRESSION;
+    private static final Set<String> STORED_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "webp", "mp4",
+            "webm", "zip", "gz", "tgz", "7z", "jar");
+    // One deflater per level and worker; changing the level of a reset deflater does not apply cleanly
+    private static final ThreadLocal<Map<Integer, Deflater>> DEFLATERS = ThreadLocal.withInitial(HashMap::new);
+
+    private ParallelArchiver() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Pack a directory using all available processors
+     *
+     * @param source  the directory to pack
+     * @param archive the archive file to create, replaced atomically if it exists
+     * @param format  the archive format
+     * @return the packing statistics
+     * @throws IOException if a file cannot be read or the archive cannot be written
+     */
+    public static ArchiveResult archive(Path source, Path archive, ArchiveFormat format) throws IOException {
+        return archive(source, archive, format, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Pack a directory
+     *
+     * @param source  the directory to pack
+     * @param archive the archive file to create, replaced atomically if it exists
+     * @param format  the archive format
+     * @param workers number of compression threads
+     * @return the packing statistics
+     * @throws IOException if a file cannot be read or the archive cannot be written
+     */
+    public static ArchiveResult archive(Path source, Path archive, ArchiveFormat format, int workers)
+            throws IOException {
+        long start = System.nanoTime();
+        List<Path> files;
+        try (Stream<Path> found = FileQuery.in(source).stream()) {
+            files = found.filter(file -> !isOutputOf(file, archive)).sorted().collect(Collectors.toList());
+        }
+
+        ArchiveResult result = new ArchiveResult();
+        StringBuilder manifest = new StringBuilder();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "archive-deflater");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Path temp = AtomicFiles.createTempSibling(archive);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ArchiveWriter writer = format == ArchiveFormat.ZIP
+                        ? new ZipWriter(channel, executor, Math.max(1, workers) * 4)
+                        : new TarGzWriter(channel, executor, Math.max(1, workers) * 4);
+                byte[] buffer = new byte[BLOCK_SIZE];
+                for (Path file : files) {
+                    String name = source.relativize(file).toString().replace('\\', '/');
+                    long size = Files.size(file);
+                    MessageDigest digest = sha256();
+                    writer.beginEntry(name, size, Files.getLastModifiedTime(file).toMillis(), isStored(name));
+                    try (InputStream in = Files.newInputStream(file)) {
+                        int length;
+                        while ((length = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                            digest.update(buffer, 0, length);
+                            writer.write(buffer, length);
+                        }
+                    }
+                    writer.endEntry();
+                    manifest.append(toHex(digest.digest())).append("  ").append(name).append('\n');
+                    result.files++;
+                    result.bytes += size;
+                }
+
+                byte[] manifestBytes = manifest.toString().getBytes(StandardCharsets.UTF_8);
+                writer.beginEntry(MANIFEST_NAME, manifestBytes.length, System.currentTimeMillis(), false);
+                writer.write(manifestBytes, manifestBytes.length);
+                writer.endEntry();
+                writer.finish();
+            }
+            AtomicFiles.move(temp, archive);
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(temp);
+        }
+
+        AtomicFiles.write(archive.resolveSibling(archive.getFileName() + MANIFEST_SUFFIX),
+                manifest.toString().getBytes(StandardCharsets.UTF_8));
+        result.archiveBytes = Files.size(archive);
+        result.elapsedNanos = System.nanoTime() - start;
+        LOGGER.info("Archived " + source + " to " + archive + ": " + result);
+        return result;
+    }
+
+    /**
+     * Whether a file is the archive, its temp file or its manifest, when the archive is created inside the source
+     */
+    private static boolean isOutputOf(Path file, Path archive) {
+        Path absoluteArchive = archive.toAbsolutePath();
+        Path absoluteFile = file.toAbsolutePath();
+        String archiveName = absoluteArchive.getFileName().toString();
+        String fileName = absoluteFile.getFileName().toString();
+        return absoluteFile.getParent().equals(absoluteArchive.getParent())
+                && (fileName.startsWith(archiveName) || fileName.startsWith("." + archiveName));
+    }
+
+    private static boolean isStored(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && STORED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Compress one block as raw deflate data. Intermediate blocks end with a sync flush on a byte boundary,
+     * so the blocks of a stream can simply be concatenated; the last one finishes the stream.
+     */
+    private static byte[] deflateBlock(byte[] input, int length, byte[] dictionary, int level, boolean last) {
+        Deflater deflater = DEFLATERS.get().computeIfAbsent(level, newLevel -> new Deflater(newLevel, true));
+        deflater.reset();
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+        }
+        deflater.setInput(input, 0, length);
+        if (last) {
+            deflater.finish();
+        }
+
+        byte[] output = new byte[length + length / 1000 + 64];
+        int outputLength = 0;
+        while (true) {
+            if (outputLength == output.length) {
+                output = Arrays.copyOf(output, output.length * 2);
+            }
+            int written = deflater.deflate(output, outputLength, output.length - outputLength,
+                    last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+            outputLength += written;
+            if (last ? deflater.finished() : outputLength < output.length) {
+                return Arrays.copyOf(output, outputLength);
+            }
+        }
+    }
+
+    /**
+     * Step writing to the archive, run in order on the calling thread
+     */
+    @FunctionalInterface
+    private interface Output {
+        void write() throws IOException;
+    }
+
+    /**
+     * Ordered output of an archive: compression tasks run on the executor while their results are written in
+     * submission order. At most window steps are pending, which bounds the memory held by blocks in flight.
+     */
+    private abstract static class ArchiveWriter {
+        private final FileChannel channel;
+        private final ExecutorService executor;
+        private final int window;
+        private final ArrayDeque<Future<Output>> pending = new ArrayDeque<>();
+        protected long position;
+
+        ArchiveWriter(FileChannel channel, ExecutorService executor, int window) {
+            this.channel = channel;
+            this.executor = executor;
+            this.window = window;
+        }
+
+        abstract void beginEntry(String name, long size, long modifiedMillis, boolean stored) throws IOException;
+
+        abstract void write(byte[] buffer, int length) throws IOException;
+
+        abstract void endEntry() throws IOException;
+
+        abstract void finish() throws IOException;
+
+        protected void compress(Callable<Output> task) throws IOException {
+            enqueue(executor.submit(task));
+        }
+
+        protected void submit(Output output) throws IOException {
+            enqueue(CompletableFuture.completedFuture(output));
+        }
+
+        protected void drain() throws IOException {
+            while (!pending.isEmpty()) {
+                writeNext();
+            }
+        }
+
+        protected void writeBytes(byte[] bytes) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        }
+
+        protected void writeBytesAt(byte[] bytes, long offset) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+        }
+
+        private void enqueue(Future<Output> output) throws IOException {
+            pending.add(output);
+            while (pending.size() > window) {
+                writeNext();
+            }
+        }
+
+        private void writeNext() throws IOException {
+            try {
+                pending.poll().get().write();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing archive", e);
+            }
+        }
+
+        /**
+         * One raw deflate stream split into blocks compressed in parallel
+         */
+        protected final class DeflateStream {
+            private final CompressedCounter counter;
+            private byte[] block = new byte[BLOCK_SIZE];
+            private int length;
+            private byte[] dictionary;
+            private int level = COMPRESSION_LEVEL;
+
+            DeflateStream(CompressedCounter counter) {
+                this.counter = counter;
+            }
+
+            void write(byte[] buffer, int offset, int count) throws IOException {
+                while (count > 0) {
+                    int copied = Math.min(count, BLOCK_SIZE - length);
+                    System.arraycopy(buffer, offset, block, length, copied);
+                    length += copied;
+                    offset += copied;
+                    count -= copied;
+                    if (length == BLOCK_SIZE) {
+                        flushBlock(false);
+                    }
+                }
+            }
+
+            /**
+             * Change the compression level from the next byte on, e.g. to store incompressible data
+             */
+            void setLevel(int newLevel) throws IOException {
+                if (newLevel != level && length > 0) {
+                    flushBlock(false);
+                }
+                level = newLevel;
+            }
+
+            void finish() throws IOException {
+                flushBlock(true);
+            }
+
+            private void flushBlock(boolean last) throws IOException {
+                byte[] input = block;
+                int inputLength = length;
+                byte[] blockDictionary = dictionary;
+                int blockLevel = level;
+                dictionary = nextDictionary(blockDictionary, input, inputLength);
+                block = new byte[BLOCK_SIZE];
+                length = 0;
+
+                compress(() -> {
+                    byte[] compressed = deflateBlock(input, inputLength, blockDictionary, blockLevel, last);
+                    return () -> {
+                        writeBytes(compressed);
+                        counter.add(compressed.length);
+                    };
+                });
+            }
+
+            /**
+             * The last 32 KB of the data seen so far, the window the next block may refer back to
+             */
+            private byte[] nextDictionary(byte[] previous, byte[] input, int inputLength) {
+                if (inputLength >= DICTIONARY_SIZE) {
+                    return Arrays.copyOfRange(input, inputLength - DICTIONARY_SIZE, inputLength);
+                }
+                int kept = previous == null ? 0 : Math.min(previous.length, DICTIONARY_SIZE - inputLength);
+                byte[] next = new byte[kept + inputLength];
+                if (kept > 0) {
+                    System.arraycopy(previous, previous.length - kept, next, 0, kept);
+                }
+                System.arraycopy(input, 0, next, kept, inputLength);
+                return next.length == 0 ? null : next;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CompressedCounter {
+        void add(long bytes);
+    }
+
+    /**
+     * Zip writer; each entry is a deflate stream of its own, or stored. Local headers are written with placeholder
+     * sizes and patched once the entry is complete, so no data descriptors are needed.
+     */
+    private static final class ZipWriter extends ArchiveWriter {
+        private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+        private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+        private static final int END_SIGNATURE = 0x06054b50;
+        private static final int VERSION = 20;
+        private static final int UTF8_FLAG = 0x0800;
+        private static final int STORED = 0;
+        private static final int DEFLATED = 8;
+        private static final long MAX_ZIP32 = 0xFFFFFFFFL;
+
+        private final List<ZipEntryInfo> entries = new ArrayList<>();
+        private ZipEntryInfo current;
+        private DeflateStream stream;
+
+        ZipWriter(FileChannel channel, ExecutorService executor, int window) {
+            super(channel, executor, window);
+        }
+
+        @Override
+        void beginEntry(String name, long size, long modifiedMillis, boolean stored) throws IOException {
+            ZipEntryInfo entry = new ZipEntryInfo(name.getBytes(StandardCharsets.UTF_8), toDosTime(modifiedMillis),
+                    stored ? STORED : DEFLATED);
+            entries.add(entry);
+            current = entry;
+            stream = stored ? null : new DeflateStream(bytes -> entry.compressedSize += bytes);
+            submit(() -> {
+                entry.offset = position;
+                writeBytes(localHeader(entry));
+            });
+        }
+
+        @Override
+        void write(byte[] buffer, int length) throws IOException {
+            ZipEntryInfo entry = current;
+            entry.crc.update(buffer, 0, length);
+            entry.size += length;
+            if (stream != null) {
+                stream.write(buffer, 0, length);
+            } else {
+                byte[] copy = Arrays.copyOf(buffer, length);
+                submit(() -> {
+                    writeBytes(copy);
+                    entry.compressedSize += copy.length;
+                });
+            }
+        }
+
+        @Override
+        void endEntry() throws IOException {
+            if (stream != null) {
+                stream.finish();
+            }
+            ZipEntryInfo entry = current;
+            submit(() -> {
+                checkZip32(entry);
+                ByteBuffer sizes = littleEndian(12);
+                sizes.putInt((int) entry.crc.getValue());
+                sizes.putInt((int) entry.compressedSize);
+                sizes.putInt((int) entry.size);
+                writeBytesAt(sizes.array(), entry.offset + 14);
+            });
+        }
+
+        @Override
+        void finish() throws IOException {
+            drain();
+            if (entries.size() > 0xFFFF) {
+                throw new IOException("Too many entries for zip, use tar.gz: " + entries.size());
+            }
+
+            long centralOffset = position;
+            for (ZipEntryInfo entry : entries) {
+                ByteBuffer header = littleEndian(46 + entry.name.length);
+                header.putInt(CENTRAL_HEADER_SIGNATURE);
+                header.putShort((short) VERSION);
+                header.putShort((short) VERSION);
+                header.putShort((short) UTF8_FLAG);
+                header.putShort((short) entry.method);
+                header.putInt(entry.dosTime);
+                header.putInt((int) entry.crc.getValue());
+                header.putInt((int) entry.compressedSize);
+                header.putInt((int) entry.size);
+                header.putShort((short) entry.name.length);
+                header.putShort((short) 0);
+                header.putShort((short) 0);
+                header.putShort((short) 0);
+                header.putShort((short) 0);
+                header.putInt(0);
+                header.putInt((int) entry.offset);
+                header.put(entry.name);
+                writeBytes(header.array());
+            }
+            long centralSize = position - centralOffset;
+            if (centralOffset > MAX_ZIP32) {
+                throw new IOException("Archive too large for zip, use tar.gz");
+            }
+
+            ByteBuffer end = littleEndian(22);
+            end.putInt(END_SIGNATURE);
+            end.putShort((short) 0);
+            end.putShort((short) 0);
+            end.putShort((short) entries.size());
+            end.putShort((short) entries.size());
+            end.putInt((int) centralSize);
+            end.putInt((int) centralOffset);
+            end.putShort((short) 0);
+            writeBytes(end.array());
+        }
+
+        private static byte[] localHeader(ZipEntryInfo entry) {
+            ByteBuffer header = littleEndian(30 + entry.name.length);
+            header.putInt(LOCAL_HEADER_SIGNATURE);
+            header.putShort((short) VERSION);
+            header.putShort((short) UTF8_FLAG);
+            header.putShort((short) entry.method);
+            header.putInt(entry.dosTime);
+            // CRC and sizes, patched when the entry is complete
+            header.putInt(0);
+            header.putInt(0);
+            header.putInt(0);
+            header.putShort((short) entry.name.length);
+            header.putShort((short) 0);
+            header.put(entry.name);
+            return header.array();
+        }
+
+        private static void checkZip32(ZipEntryInfo entry) throws IOException {
+            if (entry.size >= MAX_ZIP32 || entry.compressedSize >= MAX_ZIP32 || entry.offset >= MAX_ZIP32) {
+                throw new IOException("Entry too large for zip, use tar.gz: "
+                        + new String(entry.name, StandardCharsets.UTF_8));
+            }
+        }
+
+        private static int toDosTime(long millis) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+            if (time.getYear() < 1980) {
+                return (1 << 21) | (1 << 16);
+            }
+            return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                    | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+        }
+
+        private static ByteBuffer littleEndian(int capacity) {
+            return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private static final class ZipEntryInfo {
+            private final byte[] name;
+            private final int dosTime;
+            private final int method;
+            private final CRC32 crc = new CRC32();
+            private long size;
+            private long compressedSize;
+            private long offset;
+
+            ZipEntryInfo(byte[] name, int dosTime, int method) {
+                this.name = name;
+                this.dosTime = dosTime;
+                this.method = method;
+            }
+        }
+    }
+
+    /**
+     * Tar.gz writer; the whole tar stream is one gzip member made of blocks compressed in parallel
+     */
+    private static final class TarGzWriter extends ArchiveWriter {
+        private static final int RECORD_SIZE = 512;
+        private static final long MAX_TAR_SIZE = 077777777777L;
+        private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+        private final DeflateStream stream = new DeflateStream(bytes -> { });
+        private final CRC32 crc = new CRC32();
+        private long totalBytes;
+        private long entrySize;
+        private long entryWritten;
+        private String entryName;
+
+        TarGzWriter(FileChannel channel, ExecutorService executor, int window) throws IOException {
+            super(channel, executor, window);
+            submit(() -> writeBytes(GZIP_HEADER));
+        }
+
+        @Override
+        void beginEntry(String name, long size, long modifiedMillis, boolean stored) throws IOException {
+            if (size > MAX_TAR_SIZE) {
+                throw new IOException("Entry too large for tar: " + name);
+            }
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            String[] split = splitName(name, nameBytes);
+            if (split == null) {
+                // GNU long name extension
+                byte[] longName = Arrays.copyOf(nameBytes, nameBytes.length + 1);
+                put(header("././@LongLink", "", longName.length, 0, (byte) 'L'));
+                put(longName);
+                pad(longName.length);
+                split = new String[] {"", new String(Arrays.copyOf(nameBytes, 100), StandardCharsets.UTF_8)};
+            }
+            put(header(split[1], split[0], size, modifiedMillis / 1000, (byte) '0'));
+
+            entryName = name;
+            entrySize = size;
+            entryWritten = 0;
+            stream.setLevel(stored ? Deflater.NO_COMPRESSION : COMPRESSION_LEVEL);
+        }
+
+        @Override
+        void write(byte[] buffer, int length) throws IOException {
+            // The header declared the size, a file growing while it is packed is cut there
+            int kept = (int) Math.min(length, entrySize - entryWritten);
+            put(buffer, kept);
+            entryWritten += kept;
+        }
+
+        @Override
+        void endEntry() throws IOException {
+            if (entryWritten < entrySize) {
+                LOGGER.warn("File shrank while archiving, padded with zeros: " + entryName);
+                byte[] zeros = new byte[BLOCK_SIZE];
+                while (entryWritten < entrySize) {
+                    int length = (int) Math.min(zeros.length, entrySize - entryWritten);
+                    put(zeros, length);
+                    entryWritten += length;
+                }
+            }
+            stream.setLevel(COMPRESSION_LEVEL);
+            pad(entrySize);
+        }
+
+        @Override
+        void finish() throws IOException {
+            put(new byte[RECORD_SIZE * 2]);
+            stream.finish();
+
+            ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putInt((int) crc.getValue());
+            trailer.putInt((int) totalBytes);
+            submit(() -> writeBytes(trailer.array()));
+            drain();
+        }
+
+        private void put(byte[] bytes) throws IOException {
+            put(bytes, bytes.length);
+        }
+
+        private void put(byte[] bytes, int length) throws IOException {
+            crc.update(bytes, 0, length);
+            totalBytes += length;
+            stream.write(bytes, 0, length);
+        }
+
+        private void pad(long length) throws IOException {
+            int remainder = (int) (length % RECORD_SIZE);
+            if (remainder > 0) {
+                put(new byte[RECORD_SIZE - remainder]);
+            }
+        }
+
+        /**
+         * Split a name into ustar prefix and name fields, null if it does not fit
+         */
+        private static String[] splitName(String name, byte[] nameBytes) {
+            if (nameBytes.length <= 100) {
+                return new String[] {"", name};
+            }
+            for (int slash = name.indexOf('/'); slash >= 0; slash = name.indexOf('/', slash + 1)) {
+                String prefix = name.substring(0, slash);
+                String rest = name.substring(slash + 1);
+                if (prefix.getBytes(StandardCharsets.UTF_8).length <= 155
+                        && rest.getBytes(StandardCharsets.UTF_8).length <= 100) {
+                    return new String[] {prefix, rest};
+                }
+            }
+            return null;
+        }
+
+        private static byte[] header(String name, String prefix, long size, long modifiedSeconds, byte type) {
+            byte[] header = new byte[RECORD_SIZE];
+            putString(header, 0, 100, name);
+            putOctal(header, 100, 8, 0644);
+            putOctal(header, 108, 8, 0);
+            putOctal(header, 116, 8, 0);
+            putOctal(header, 124, 12, size);
+            putOctal(header, 136, 12, modifiedSeconds);
+            Arrays.fill(header, 148, 156, (byte) ' ');
+            header[156] = type;
+            putString(header, 257, 6, "ustar");
+            putString(header, 263, 2, "00");
+            putString(header, 345, 155, prefix);
+
+            long checksum = 0;
+            for (byte b : header) {
+                checksum += b & 0xFF;
+            }
+            putOctal(header, 148, 7, checksum);
+            return header;
+        }
+
+        private static void putString(byte[] header, int offset, int length, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+        }
+
+        /**
+         * Zero padded octal number followed by a NUL
+         */
+        private static void putOctal(byte[] header, int offset, int length, long value) {
+            String octal = Long.toOctalString(value);
+            String padded = "0".repeat(Math.max(0, length - 1 - octal.length())) + octal;
+            putString(header, offset, length - 1, padded);
+            header[offset + length - 1] = 0;
+        }
+    }
+
+    /**
+     * Statistics of an archive run
+     */
+    public static class ArchiveResult {
+        private int files;
+        private long bytes;
+        private long archiveBytes;
+        private long elapsedNanos;
+
+        public int getFiles() {
+            return files;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getArchiveBytes() {
+            return archiveBytes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000L;
+        }
+
+        /**
+         * Get packing throughput of the source data in megabytes per second
+         */
+        public double getThroughputMBps() {
+            if (elapsedNanos <= 0) {
+                return 0;
+            }
+            return (bytes / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d files, %.1f MB to %.1f MB in %d ms (%.1f MB/s)", files,
+                    bytes / (1024.0 * 1024.0), archiveBytes / (1024.0 * 1024.0), getElapsedMillis(),
+                    getThroughputMBps());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared cache of properties files.
+ * Each file is parsed once and re-parsed only when its size or modification time changes.
+ * Writes are staged in memory and written atomically (temp file and rename) on flush.
+ */
+public class PropertiesStore {
+    private static final Logger LOGGER = LogManager.getLogger(PropertiesStore.class);
+
+    private static final Map<Path, CachedFile> FILES = new ConcurrentHashMap<>();
+
+    private PropertiesStore() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Get a property value, including values staged but not flushed yet
+     *
+     * @param file the properties file
+     * @param key  the property key
+     * @return the value, or null if the key or the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    public static String get(Path file, String key) throws IOException {
+        CachedFile cachedFile = cachedFile(file);
+        String staged = cachedFile.pending.get(key);
+        if (staged != null) {
+            return staged;
+        }
+        return cachedFile.current().get(key);
+    }
+
+    /**
+     * Get all properties of a file as a read-only map, including staged values
+     *
+     * @param file the properties file
+     * @return the properties, empty if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    public static Map<String, String> getAll(Path file) throws IOException {
+        CachedFile cachedFile = cachedFile(file);
+        if (cachedFile.pending.isEmpty()) {
+            return cachedFile.current();
+        }
+        Map<String, String> merged = new HashMap<>(cachedFile.current());
+        merged.putAll(cachedFile.pending);
+        return Collections.unmodifiableMap(merged);
+    }
+
+    /**
+     * Stage a property value; it is visible to readers of this store immediately and written on flush
+     *
+     * @param file  the properties file
+     * @param key   the property key
+     * @param value the property value
+     */
+    public static void set(Path file, String key, String value) {
+        FILES.computeIfAbsent(normalize(file), CachedFile::new).pending.put(key, value);
+    }
+
+    /**
+     * Write the staged values of a file atomically, merged with its current content on disk
+     *
+     * @param file the properties file
+     * @throws IOException if the file cannot be read or written
+     */
+    public static void flush(Path file) throws IOException {
+        CachedFile cachedFile = FILES.get(normalize(file));
+        if (cachedFile != null) {
+            cachedFile.flush();
+        }
+    }
+
+    /**
+     * Write the staged values of all files
+     */
+    public static void flushAll() {
+        for (CachedFile cachedFile : FILES.values()) {
+            try {
+                cachedFile.flush();
+            } catch (IOException e) {
+                LOGGER.error("Error writing properties file " + cachedFile.path + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Drop the cached content of a file, staged values are kept
+     */
+    public static void invalidate(Path file) {
+        CachedFile cachedFile = FILES.get(normalize(file));
+        if (cachedFile != null) {
+            cachedFile.snapshot = null;
+        }
+    }
+
+    private static CachedFile cachedFile(Path file) {
+        return FILES.computeIfAbsent(normalize(file), CachedFile::new);
+    }
+
+    private static Path normalize(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Parsed content of a file together with the size and modification time it was read at
+     */
+    private static final class Snapshot {
+        private final Map<String, String> values;
+        private final long size;
+        private final long modified;
+
+        Snapshot(Map<String, String> values, long size, long modified) {
+            this.values = values;
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+
+    private static final class CachedFile {
+        private final Path path;
+        private final Map<String, String> pending = new ConcurrentHashMap<>();
+        private volatile Snapshot snapshot;
+
+        CachedFile(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Get the cached values, reloading them if the file changed on disk
+         */
+        Map<String, String> current() throws IOException {
+            Snapshot cached = snapshot;
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                return Collections.emptyMap();
+            }
+            if (cached != null && cached.size == attrs.size() && cached.modified == attrs.lastModifiedTime().toMillis()) {
+                return cached.values;
+            }
+            return reload().values;
+        }
+
+        private synchronized Snapshot reload() throws IOException {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            Properties properties = new Properties();
+            try (InputStream input = Files.newInputStream(path)) {
+                properties.load(input);
+            }
+            Map<String, String> values = new HashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                values.put(name, properties.getProperty(name));
+            }
+            Snapshot loaded = new Snapshot(Collections.unmodifiableMap(values), attrs.size(),
+                    attrs.lastModifiedTime().toMillis());
+            snapshot = loaded;
+            LOGGER.debug("Loaded properties file: " + path);
+            return loaded;
+        }
+
+        synchronized void flush() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            Map<String, String> staged = new HashMap<>(pending);
+            Properties properties = new Properties();
+            properties.putAll(Files.exists(path) ? reload().values : Collections.emptyMap());
+            properties.putAll(staged);
+
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            properties.store(content, "Updated: " + String.join(", ", staged.keySet()));
+            AtomicFiles.write(path, content.toByteArray());
+
+            // Keep values staged again by other threads while this flush was running
+            staged.forEach(pending::remove);
+            reload();
+            LOGGER.info("Properties file written: " + path + " (" + staged.size() + " updated)");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Resolves runtime settings from layered sources, in order of precedence:
+ * system property (e.g. -DretryLimit=2), environment variable (the key in upper snake case with the DEMO_ prefix,
+ * e.g. DEMO_RETRY_LIMIT), top level key of the YAML file, then the default passed to the getter.
+ * The prefix keeps generic keys such as "debug" from picking up variables that CI agents export, e.g. DEBUG.
+ * Settings are resolved once into immutable values; the effective configuration of every resolved setting
+ * can be inspected with {@link #getEffectiveConfig()}.
+ */
+public final class RuntimeConfig {
+    private static final Logger LOGGER = LogManager.getLogger(RuntimeConfig.class);
+
+    private static final String ENVIRONMENT_PREFIX = "DEMO_";
+
+    private static final Map<String, String> EFFECTIVE = new ConcurrentSkipListMap<>();
+    private static final Map<ConfigOption, ConfigValue> OPTIONS = new ConcurrentHashMap<>();
+
+    private RuntimeConfig() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Source a setting was resolved from
+     */
+    public enum Source {
+        SYSTEM_PROPERTY,
+        ENVIRONMENT,
+        YAML,
+        DEFAULT
+    }
+
+    /**
+     * Resolve a setting of a config enum, once; later calls return the same value
+     *
+     * @param option the setting
+     * @return the value, missing if not set anywhere
+     */
+    public static ConfigValue resolve(ConfigOption option) {
+        return OPTIONS.computeIfAbsent(option, key -> resolve(key.toString(), key.getConfigFile()));
+    }
+
+    /**
+     * Resolve a single setting
+     *
+     * @param key        the system property and YAML key
+     * @param configFile the relative path to the YAML file in resources, null to skip the YAML layer
+     * @return the value, missing if not set anywhere
+     */
+    public static ConfigValue resolve(String key, String configFile) {
+        return resolve(key, toEnvironmentName(key), configFile);
+    }
+
+    /**
+     * Resolve a single setting read from an established environment variable, e.g. one set by CI
+     *
+     * @param key             the system property and YAML key
+     * @param environmentName the environment variable, used as is
+     * @param configFile      the relative path to the YAML file in resources, null to skip the YAML layer
+     * @return the value, missing if not set anywhere
+     */
+    public static ConfigValue resolve(String key, String environmentName, String configFile) {
+        Source source = Source.DEFAULT;
+        Object value = System.getProperty(key);
+        if (value != null) {
+            source = Source.SYSTEM_PROPERTY;
+        } else if ((value = System.getenv(environmentName)) != null) {
+            source = Source.ENVIRONMENT;
+        } else if (configFile != null) {
+            ConfigSource config = YamlLoader.getSource(configFile);
+            value = config == null ? null : config.getTree().get(key);
+            if (value != null) {
+                source = Source.YAML;
+            }
+        }
+
+        String name = configFile == null ? key : configFile + ":" + key;
+        EFFECTIVE.put(name, value == null ? "[" + source + "]" : value + " [" + source + "]");
+        LOGGER.debug("Resolved " + name + " from " + source);
+        return ConfigValue.of(key, value);
+    }
+
+    /**
+     * Get the effective value and source of every setting resolved so far, sorted by key
+     */
+    public static Map<String, String> getEffectiveConfig() {
+        return Collections.unmodifiableMap(new TreeMap<>(EFFECTIVE));
+    }
+
+    /**
+     * Convert a camel case key to its environment variable name, e.g. "retryLimit" to "DEMO_RETRY_LIMIT"
+     */
+    static String toEnvironmentName(String key) {
+        StringBuilder name = new StringBuilder(ENVIRONMENT_PREFIX.length() + key.length() + 4)
+                .append(ENVIRONMENT_PREFIX);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(key.charAt(i - 1))) {
+                name.append('_');
+            }
+            name.append(c == '.' || c == '-' ? '_' : Character.toUpperCase(c));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,171 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites text files in one streaming pass with bounded memory.
+ * The output is written to a temp file and renamed over the target, so input and output may be the same file.
+ */
+public class TextRewriter {
+    private static final Logger LOGGER = LogManager.getLogger(TextRewriter.class);
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private TextRewriter() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Replace literal keys with their values in one pass over the file.
+     * Keys are matched left to right; when keys overlap, the one ending first wins (the longest if several end there).
+     * Memory use is bounded by the chunk size plus the longest key.
+     *
+     * @param input        the source file
+     * @param output       the target file, may be the same as input
+     * @param replacements literal key to replacement text
+     * @return number of replacements made
+     * @throws IOException if reading or writing fails
+     */
+    public static long replaceLiterals(Path input, Path output, Map<String, String> replacements) throws IOException {
+        List<String> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (Map.Entry<String, String> replacement : replacements.entrySet()) {
+            if (replacement.getKey() != null && !replacement.getKey().isEmpty()) {
+                keys.add(replacement.getKey());
+                values.add(replacement.getValue() == null ? "" : replacement.getValue());
+            }
+        }
+        LiteralMatcher matcher = new LiteralMatcher(keys);
+
+        return rewrite(input, output, (reader, writer) -> {
+            long count = 0;
+            char[] chunk = new char[CHUNK_SIZE];
+            // Characters read but not yet written, because they may still be the start of a key
+            StringBuilder pending = new StringBuilder();
+            int state = LiteralMatcher.ROOT;
+            int length;
+            while ((length = reader.read(chunk)) >= 0) {
+                for (int i = 0; i < length; i++) {
+                    state = matcher.next(state, chunk[i]);
+                    pending.append(chunk[i]);
+                    int match = matcher.longestMatch(state);
+                    if (match != LiteralMatcher.NO_MATCH) {
+                        writer.append(pending, 0, pending.length() - matcher.patternLength(match));
+                        writer.write(values.get(match));
+                        pending.setLength(0);
+                        state = LiteralMatcher.ROOT;
+                        count++;
+                    }
+                }
+                int undecided = matcher.depth(state);
+                writer.append(pending, 0, pending.length() - undecided);
+                pending.delete(0, pending.length() - undecided);
+            }
+            writer.append(pending);
+            return count;
+        });
+    }
+
+    /**
+     * Replace regular expressions line by line in one pass over the file, applying the patterns in order.
+     * Patterns cannot match across line breaks; replacement strings may use group references like "$1".
+     *
+     * @param input        the source file
+     * @param output       the target file, may be the same as input
+     * @param replacements regular expression to replacement string
+     * @return number of replacements made
+     * @throws IOException if reading or writing fails
+     */
+    public static long replacePatterns(Path input, Path output, Map<String, String> replacements) throws IOException {
+        Map<Pattern, String> compiled = new LinkedHashMap<>();
+        replacements.forEach((regex, replacement) -> compiled.put(Pattern.compile(regex), replacement));
+
+        return rewrite(input, output, (reader, writer) -> {
+            long count = 0;
+            char[] chunk = new char[CHUNK_SIZE];
+            StringBuilder line = new StringBuilder();
+            int length;
+            while ((length = reader.read(chunk)) >= 0) {
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (chunk[i] == '\n') {
+                        line.append(chunk, lineStart, i - lineStart);
+                        count += writeLine(writer, line, compiled);
+                        writer.write('\n');
+                        line.setLength(0);
+                        lineStart = i + 1;
+                    }
+                }
+                line.append(chunk, lineStart, length - lineStart);
+            }
+            count += writeLine(writer, line, compiled);
+            return count;
+        });
+    }
+
+    private static long writeLine(Writer writer, StringBuilder line, Map<Pattern, String> patterns) throws IOException {
+        long count = 0;
+        CharSequence current = line;
+        for (Map.Entry<Pattern, String> entry : patterns.entrySet()) {
+            Matcher matcher = entry.getKey().matcher(current);
+            if (!matcher.find()) {
+                continue;
+            }
+            StringBuilder replaced = new StringBuilder(current.length());
+            do {
+                matcher.appendReplacement(replaced, entry.getValue());
+                count++;
+            } while (matcher.find());
+            matcher.appendTail(replaced);
+            current = replaced;
+        }
+        writer.append(current);
+        return count;
+    }
+
+    /**
+     * Stream the input through the transformation into a temp file, then rename it over the output
+     */
+    private static long rewrite(Path input, Path output, Transformation transformation) throws IOException {
+        long start = System.nanoTime();
+        Path temp = AtomicFiles.createTempSibling(output);
+        try {
+            long count;
+            try (Reader reader = new InputStreamReader(Files.newInputStream(input), CHARSET);
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(temp), CHARSET),
+                            CHUNK_SIZE)) {
+                count = transformation.apply(reader, writer);
+            }
+            AtomicFiles.move(temp, output);
+            LOGGER.info("File updated: " + output + " (" + count + " replacements in "
+                    + (System.nanoTime() - start) / 1_000_000L + " ms)");
+            return count;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Transformation {
+        long apply(Reader reader, Writer writer) throws IOException;
+    }
+}
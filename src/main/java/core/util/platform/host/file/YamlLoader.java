@@ -2,54 +2,85 @@ package core.util.platform.host.file;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
-import org.yaml.snakeyaml.Yaml;
 
-import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class YamlLoader {
     private static final Logger LOGGER = LogManager.getLogger(YamlLoader.class);
 
+    // Each file is parsed once; lookups go through the cached tree
+    private static final Map<String, ConfigSource> SOURCES = new ConcurrentHashMap<>();
+
     private YamlLoader() {
         // Private constructor to prevent instantiation
     }
 
     /**
-     * Load YAML configuration file from classpath
-     * 
+     * Get the cached configuration of a YAML file from classpath, parsing it on first use
+     *
      * @param filePath the relative path to the YAML file in resources
-     * @return HashMap containing the loaded configuration, or empty HashMap if
-     *         loading fails
+     * @return the configuration source, or null if the file path is null or empty
      */
-    public static Map<String, Object> loadConfig(String filePath) {
+    public static ConfigSource getSource(String filePath) {
         if (filePath == null || filePath.trim().isEmpty()) {
             LOGGER.error("File path is null or empty");
-            return new HashMap<>();
+            return null;
         }
+        return SOURCES.computeIfAbsent(filePath, ConfigSource::new);
+    }
 
-        try (InputStream inputStream = YamlLoader.class
-                .getClassLoader()
-                .getResourceAsStream(filePath)) {
-
-            if (inputStream == null) {
-                LOGGER.error("File not found in classpath: " + filePath);
-                return new HashMap<>();
-            }
+    /**
+     * Whether a file was already parsed into the cache
+     */
+    static boolean isLoaded(String filePath) {
+        return SOURCES.containsKey(filePath);
+    }
 
-            Yaml yaml = new Yaml();
-            Map<String, Object> settings = yaml.load(inputStream);
+    /**
+     * Get a compiled handle of a value addressed with dot notation, to keep and query repeatedly
+     *
+     * @param filePath the relative path to the YAML file
+     * @param keyPath  the dot-separated path to the value (e.g., "database.host")
+     * @return the handle, or null if the file path or key path is null or empty
+     */
+    public static ConfigKey getKey(String filePath, String keyPath) {
+        if (keyPath == null || keyPath.trim().isEmpty()) {
+            LOGGER.error("Key path is null or empty");
+            return null;
+        }
+        ConfigSource source = getSource(filePath);
+        return source == null ? null : source.path(keyPath);
+    }
 
-            if (settings == null) {
-                LOGGER.warn("YAML file is empty: " + filePath);
-                return new HashMap<>();
-            }
+    /**
+     * Load YAML configuration file from classpath
+     * 
+     * @param filePath the relative path to the YAML file in resources
+     * @return HashMap containing the loaded configuration, or empty HashMap if
+     *         loading fails. Nested maps and lists are shared with the cache and immutable.
+     */
+    public static Map<String, Object> loadConfig(String filePath) {
+        ConfigSource source = getSource(filePath);
+        return source == null ? new HashMap<>() : new HashMap<>(source.getTree());
+    }
 
-            LOGGER.info("Successfully loaded configuration from: " + filePath);
-            return settings;
+    /**
+     * Load a YAML file from the file system, e.g. test data under test_data_path, through the persistent cache
+     *
+     * @param filePath the path to the YAML file
+     * @return the immutable tree, or empty map if loading fails
+     */
+    public static Map<String, Object> loadFile(String filePath) {
+        try {
+            Map<String, Object> tree = ConfigCache.load(Paths.get(filePath));
+            return tree == null ? Collections.emptyMap() : tree;
         } catch (Exception ex) {
-            LOGGER.error("ERROR during loading config file: " + filePath, ex);
-            return new HashMap<>();
+            LOGGER.error("ERROR during loading YAML file: " + filePath, ex);
+            return Collections.emptyMap();
         }
     }
 
@@ -61,21 +92,8 @@ public class YamlLoader {
      * @return the value associated with the key, or null if not found
      */
     public static Object getConfigValue(String filePath, String key) {
-        if (key == null || key.trim().isEmpty()) {
-            LOGGER.error("Key is null or empty");
-            return null;
-        }
-
-        Map<String, Object> config = loadConfig(filePath);
-        Object value = config.get(key);
-
-        if (value == null) {
-            LOGGER.warn("Key not found in configuration: " + key);
-            return null;
-        }
-
-        LOGGER.debug("Retrieved value for key '" + key + "': " + value);
-        return value;
+        ConfigKey configKey = getTopLevelKey(filePath, key);
+        return configKey == null ? null : configKey.getValue();
     }
 
     /**
@@ -86,30 +104,8 @@ public class YamlLoader {
      * @return the value at the specified path, or null if not found
      */
     public static Object getNestedConfigValue(String filePath, String keyPath) {
-        if (keyPath == null || keyPath.trim().isEmpty()) {
-            LOGGER.error("Key path is null or empty");
-            return null;
-        }
-
-        Map<String, Object> config = loadConfig(filePath);
-        String[] keys = keyPath.split("\\.");
-        Object current = config;
-
-        for (String key : keys) {
-            if (current instanceof Map) {
-                current = ((Map<?, ?>) current).get(key);
-                if (current == null) {
-                    LOGGER.warn("Key not found in configuration path: " + keyPath);
-                    return null;
-                }
-            } else {
-                LOGGER.warn("Invalid configuration path: " + keyPath);
-                return null;
-            }
-        }
-
-        LOGGER.debug("Retrieved nested value for path '" + keyPath + "': " + current);
-        return current;
+        ConfigKey configKey = getKey(filePath, keyPath);
+        return configKey == null ? null : configKey.getValue();
     }
 
     /**
@@ -121,11 +117,8 @@ public class YamlLoader {
      * @return the string value or default value if not found
      */
     public static String getConfigString(String filePath, String key, String defaultValue) {
-        Object value = getConfigValue(filePath, key);
-        if (value == null) {
-            return defaultValue;
-        }
-        return String.valueOf(value);
+        ConfigKey configKey = getTopLevelKey(filePath, key);
+        return configKey == null ? defaultValue : configKey.getString(defaultValue);
     }
 
     /**
@@ -137,16 +130,8 @@ public class YamlLoader {
      * @return the integer value or default value if not found/invalid
      */
     public static int getConfigInt(String filePath, String key, int defaultValue) {
-        Object value = getConfigValue(filePath, key);
-        if (value == null) {
-            return defaultValue;
-        }
-        try {
-            return Integer.parseInt(String.valueOf(value));
-        } catch (NumberFormatException ex) {
-            LOGGER.warn("Invalid integer value for key '" + key + "': " + value, ex);
-            return defaultValue;
-        }
+        ConfigKey configKey = getTopLevelKey(filePath, key);
+        return configKey == null ? defaultValue : configKey.getInt(defaultValue);
     }
 
     /**
@@ -158,10 +143,16 @@ public class YamlLoader {
      * @return the boolean value or default value if not found
      */
     public static boolean getConfigBoolean(String filePath, String key, boolean defaultValue) {
-        Object value = getConfigValue(filePath, key);
-        if (value == null) {
-            return defaultValue;
+        ConfigKey configKey = getTopLevelKey(filePath, key);
+        return configKey == null ? defaultValue : configKey.getBoolean(defaultValue);
+    }
+
+    private static ConfigKey getTopLevelKey(String filePath, String key) {
+        if (key == null || key.trim().isEmpty()) {
+            LOGGER.error("Key is null or empty");
+            return null;
         }
-        return Boolean.parseBoolean(String.valueOf(value));
+        ConfigSource source = getSource(filePath);
+        return source == null ? null : source.key(key);
     }
 }
@@ -0,0 +1,161 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class ZipExtractor {
+    private static final Logger LOGGER = LogManager.getLogger(ZipExtractor.class);
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_WORKERS = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private ZipExtractor() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Extract all entries of a zip file
+     *
+     * @param zipFile        the zip file
+     * @param destinationDir the directory to extract into
+     * @return number of extracted files
+     * @throws IOException if the archive cannot be read, an entry escapes the destination or a write fails
+     */
+    public static int extract(Path zipFile, Path destinationDir) throws IOException {
+        return extract(zipFile, destinationDir, name -> true);
+    }
+
+    /**
+     * Extract the entries accepted by the filter, inflating them in parallel on a bounded worker pool
+     *
+     * @param zipFile        the zip file
+     * @param destinationDir the directory to extract into
+     * @param entryFilter    predicate on the entry name (e.g. "reports/summary.csv")
+     * @return number of extracted files
+     * @throws IOException if the archive cannot be read, an entry escapes the destination or a write fails
+     */
+    public static int extract(Path zipFile, Path destinationDir, Predicate<String> entryFilter) throws IOException {
+        long start = System.nanoTime();
+        Path destination = destinationDir.toAbsolutePath().normalize();
+        Files.createDirectories(destination);
+
+        try (ZipFile archive = new ZipFile(zipFile.toFile())) {
+            // First pass over the central directory: validate targets and collect directories to create
+            List<ZipEntry> fileEntries = new ArrayList<>();
+            List<Path> fileTargets = new ArrayList<>();
+            Set<Path> directories = new LinkedHashSet<>();
+
+            Enumeration<? extends ZipEntry> entries = archive.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entryFilter.test(entry.getName())) {
+                    continue;
+                }
+
+                Path target = resolveSafely(destination, entry.getName());
+                if (entry.isDirectory()) {
+                    directories.add(target);
+                } else {
+                    directories.add(target.getParent());
+                    fileEntries.add(entry);
+                    fileTargets.add(target);
+                }
+            }
+
+            for (Path directory : directories) {
+                Files.createDirectories(directory);
+            }
+
+            long bytes = inflateAll(archive, fileEntries, fileTargets);
+            LOGGER.info(String.format("Extracted %d of %d entries (%.1f MB) from %s in %d ms",
+                    fileEntries.size(), archive.size(), bytes / (1024.0 * 1024.0), zipFile,
+                    (System.nanoTime() - start) / 1_000_000L));
+            return fileEntries.size();
+        }
+    }
+
+    /**
+     * Inflate the entries in parallel; ZipFile supports concurrent entry streams
+     */
+    private static long inflateAll(ZipFile archive, List<ZipEntry> entries, List<Path> targets) throws IOException {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        AtomicLong bytes = new AtomicLong();
+        int workers = Math.min(MAX_WORKERS, entries.size());
+        if (workers == 1) {
+            for (int i = 0; i < entries.size(); i++) {
+                bytes.addAndGet(inflate(archive, entries.get(i), targets.get(i)));
+            }
+            return bytes.get();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Long>> futures = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                ZipEntry entry = entries.get(i);
+                Path target = targets.get(i);
+                futures.add(executor.submit(() -> inflate(archive, entry, target)));
+            }
+            for (Future<Long> future : futures) {
+                bytes.addAndGet(future.get());
+            }
+            return bytes.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + archive.getName(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long inflate(ZipFile archive, ZipEntry entry, Path target) throws IOException {
+        long written = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = archive.getInputStream(entry);
+                OutputStream out = Files.newOutputStream(target)) {
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                out.write(buffer, 0, length);
+                written += length;
+            }
+        }
+        LOGGER.debug("Unzipped: " + entry.getName());
+        return written;
+    }
+
+    /**
+     * Resolve the entry name under the destination, rejecting names that escape it (zip slip)
+     */
+    private static Path resolveSafely(Path destination, String entryName) throws IOException {
+        Path target = destination.resolve(entryName).normalize();
+        if (!target.startsWith(destination)) {
+            throw new IOException("Zip entry is outside of the target directory: " + entryName);
+        }
+        return target;
+    }
+}
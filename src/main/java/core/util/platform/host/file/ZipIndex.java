@@ -0,0 +1,206 @@
+package core.util.platform.host.file;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Entry names of a zip archive, read once from the central directory and indexed for repeated lookups
+ */
+public class ZipIndex {
+    private static final Logger LOGGER = LogManager.getLogger(ZipIndex.class);
+
+    private final Path zipPath;
+    private final List<String> entryNames;
+    private final Set<String> entryNameSet;
+
+    private ZipIndex(Path zipPath, List<String> entryNames) {
+        this.zipPath = zipPath;
+        this.entryNames = Collections.unmodifiableList(entryNames);
+        this.entryNameSet = new HashSet<>(entryNames);
+    }
+
+    /**
+     * Read the central directory of the zip file
+     *
+     * @param zipPath the zip file
+     * @return the index of all entry names
+     * @throws IOException if the zip file cannot be opened
+     */
+    public static ZipIndex open(Path zipPath) throws IOException {
+        List<String> names;
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            names = new ArrayList<>(zipFile.size());
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                names.add(entries.nextElement().getName());
+            }
+        }
+        LOGGER.debug("Indexed " + names.size() + " entries of " + zipPath);
+        return new ZipIndex(zipPath, names);
+    }
+
+    public Path getZipPath() {
+        return zipPath;
+    }
+
+    public int size() {
+        return entryNames.size();
+    }
+
+    public List<String> getEntryNames() {
+        return entryNames;
+    }
+
+    /**
+     * Check if an entry with exactly this name exists
+     */
+    public boolean containsExact(String entryName) {
+        return entryName != null && entryNameSet.contains(entryName);
+    }
+
+    /**
+     * Check if any entry name contains the fragment
+     */
+    public boolean containsSubstring(String fragment) {
+        if (fragment == null || fragment.isEmpty()) {
+            return false;
+        }
+        if (entryNameSet.contains(fragment)) {
+            return true;
+        }
+        for (String name : entryNames) {
+            if (name.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find entry names matching a glob, where "*" and "?" stay within one path segment and "**" crosses segments
+     */
+    public List<String> findByGlob(String glob) {
+        if (glob == null || glob.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Pattern pattern = Pattern.compile(globToRegex(glob));
+        return entryNames.stream()
+                .filter(name -> pattern.matcher(name).matches())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Find the fragments that no entry name contains, scanning the entry names once
+     *
+     * @param fragments the name fragments to look for
+     * @return the fragments not found, in input order
+     */
+    public List<String> findMissing(Collection<String> fragments) {
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(fragments));
+        List<String> pending = new ArrayList<>();
+        for (String fragment : unique) {
+            if (fragment != null && !fragment.isEmpty() && !entryNameSet.contains(fragment)) {
+                pending.add(fragment);
+            }
+        }
+
+        BitSet found = scan(pending);
+        List<String> missing = new ArrayList<>();
+        for (String fragment : unique) {
+            if (fragment == null || fragment.isEmpty()) {
+                missing.add(fragment);
+            }
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            if (!found.get(i)) {
+                missing.add(pending.get(i));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Find the fragments that some entry name contains, scanning the entry names once
+     *
+     * @param fragments the name fragments to look for
+     * @return the fragments found, in input order
+     */
+    public List<String> findPresent(Collection<String> fragments) {
+        Set<String> missing = new HashSet<>(findMissing(fragments));
+        return new LinkedHashSet<>(fragments).stream()
+                .filter(fragment -> !missing.contains(fragment))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Check that the archive has exactly as many entries as fragments, and every fragment is in some entry name
+     */
+    public boolean containsExactly(List<String> fragments) {
+        if (fragments == null || fragments.size() != entryNames.size()) {
+            return false;
+        }
+        return findMissing(fragments).isEmpty();
+    }
+
+    /**
+     * Check that no entry name contains any of the fragments
+     */
+    public boolean containsNoneOf(Collection<String> fragments) {
+        return fragments == null || findPresent(fragments).isEmpty();
+    }
+
+    /**
+     * Run all fragments over all entry names in one pass
+     */
+    private BitSet scan(List<String> fragments) {
+        BitSet found = new BitSet(fragments.size());
+        if (fragments.isEmpty()) {
+            return found;
+        }
+
+        LiteralMatcher matcher = new LiteralMatcher(fragments);
+        for (String name : entryNames) {
+            matcher.collectMatches(name, found);
+            if (found.cardinality() == fragments.size()) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regex.toString();
+    }
+}
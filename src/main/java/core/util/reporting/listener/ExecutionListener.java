@@ -1,38 +1,90 @@
 package core.util.reporting.listener;
 
+import core.util.platform.host.file.AsyncFileCleaner;
+import core.util.platform.host.file.ConfigRegistry;
+import core.util.platform.host.file.RuntimeConfig;
 import core.util.platform.host.os.OsHelper;
 import core.util.platform.host.shell.CommandHelper;
 import core.util.reporting.report.ExtentManager;
 import core.util.reporting.report.HtmlReportGenerator;
+import core.util.reporting.report.JsonResultsWriter;
+import core.util.reporting.report.MethodTimings;
+import core.util.reporting.report.ReportRetention;
+import core.util.reporting.report.TimingHistory;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 import org.testng.IAlterSuiteListener;
 import org.testng.IExecutionListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.xml.XmlSuite;
 
-public class ExecutionListener implements IExecutionListener, IAlterSuiteListener {
+import java.util.List;
+
+public class ExecutionListener implements IExecutionListener, IAlterSuiteListener, IMethodInterceptor {
     private static final Logger LOGGER = LogManager.getLogger(ExecutionListener.class);
+    private static final long CLEANUP_TIMEOUT_MILLIS = 30000;
 
     @Override
     public void onExecutionStart() {
         LOGGER.info("Create report directory");
         HtmlReportGenerator.createTestOutputDirectory();
+        HtmlReportGenerator.applyReportRetention();
 
         LOGGER.info("Initialize ExtentReports");
         ExtentManager.getInstance();
 
+        ConfigRegistry.startIfEnabled();
         stopNodeJs();
     }
 
     @Override
     public void onExecutionFinish() {
+        ConfigRegistry.stop();
+        LOGGER.info("Effective configuration: " + RuntimeConfig.getEffectiveConfig());
+
+        LOGGER.info("Report method timings");
+        MethodTimings.report();
+        TimingHistory.recordRun();
+
         LOGGER.info("Flush ExtentReports");
         ExtentManager.flush();
 
-        LOGGER.info("Copy report to Newest_Report folder");
-        HtmlReportGenerator.copyNewestReport();
+        LOGGER.info("Write test results");
+        JsonResultsWriter.close(CLEANUP_TIMEOUT_MILLIS);
+
+        LOGGER.info("Publish report to Newest_Report folder");
+        HtmlReportGenerator.publishNewestReport();
+
+        LOGGER.info("Package report");
+        HtmlReportGenerator.packageReport();
+        HtmlReportGenerator.indexReport();
+
+        LOGGER.info("Wait for report retention");
+        ReportRetention.awaitCompletion(CLEANUP_TIMEOUT_MILLIS);
+
+        LOGGER.info("Wait for background file cleanup");
+        AsyncFileCleaner.awaitCompletion(CLEANUP_TIMEOUT_MILLIS);
         stopNodeJs();
     }
 
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (TimingHistory.isEnabled()) {
+            TimingHistory.reorderSuites(suites);
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        XmlSuite.ParallelMode parallel = context.getSuite().getXmlSuite().getParallel();
+        if (parallel == XmlSuite.ParallelMode.METHODS && TimingHistory.isEnabled()) {
+            return TimingHistory.reorderMethods(methods);
+        }
+        return methods;
+    }
+
     private void stopNodeJs() {
         String nodeJs;
         if (OsHelper.isUnix()) {
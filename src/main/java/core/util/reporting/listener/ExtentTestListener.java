@@ -1,9 +1,7 @@
 package core.util.reporting.listener;
 
-import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.markuputils.ExtentColor;
-import com.aventstack.extentreports.markuputils.MarkupHelper;
 import core.util.reporting.report.ExtentManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -33,12 +31,13 @@ public class ExtentTestListener implements ITestListener {
 
         LOGGER.info("Test Started: " + testName);
 
-        ExtentTest test = ExtentManager.createTest(testName, description != null ? description : "");
-        test.info("Test execution started: " + testName);
+        // Reported asynchronously, the test thread does not wait for the report
+        ExtentManager.startTest(testName, description != null ? description : "");
+        ExtentManager.log(Status.INFO, "Test execution started: " + testName);
 
         // Add test class and method info
-        test.info("Test Class: " + result.getTestClass().getName());
-        test.info("Test Method: " + testName);
+        ExtentManager.log(Status.INFO, "Test Class: " + result.getTestClass().getName());
+        ExtentManager.log(Status.INFO, "Test Method: " + testName);
     }
 
     @Override
@@ -46,12 +45,9 @@ public class ExtentTestListener implements ITestListener {
         String testName = result.getMethod().getMethodName();
         LOGGER.info("Test Passed: " + testName);
 
-        ExtentTest test = ExtentManager.getTest();
-        if (test != null) {
-            test.log(Status.PASS, MarkupHelper.createLabel("Test Passed: " + testName, ExtentColor.GREEN));
-            test.pass("Test execution completed successfully");
-        }
-        ExtentManager.removeTest();
+        ExtentManager.label(Status.PASS, "Test Passed: " + testName, ExtentColor.GREEN);
+        ExtentManager.log(Status.PASS, "Test execution completed successfully");
+        ExtentManager.endTest();
     }
 
     @Override
@@ -61,16 +57,15 @@ public class ExtentTestListener implements ITestListener {
 
         LOGGER.error("Test Failed: " + testName, throwable);
 
-        ExtentTest test = ExtentManager.getTest();
-        if (test != null) {
-            test.log(Status.FAIL, MarkupHelper.createLabel("Test Failed: " + testName, ExtentColor.RED));
+        if (ExtentManager.hasTest()) {
+            ExtentManager.label(Status.FAIL, "Test Failed: " + testName, ExtentColor.RED);
 
             if (throwable != null) {
-                test.fail("Exception: " + throwable.getMessage());
-                test.fail("Stack Trace: <pre>" + getStackTrace(throwable) + "</pre>");
+                ExtentManager.log(Status.FAIL, "Exception: " + throwable.getMessage());
+                ExtentManager.log(Status.FAIL, "Stack Trace: <pre>" + getStackTrace(throwable) + "</pre>");
             }
         }
-        ExtentManager.removeTest();
+        ExtentManager.endTest();
     }
 
     @Override
@@ -78,15 +73,11 @@ public class ExtentTestListener implements ITestListener {
         String testName = result.getMethod().getMethodName();
         LOGGER.warn("Test Skipped: " + testName);
 
-        ExtentTest test = ExtentManager.getTest();
-        if (test != null) {
-            test.log(Status.SKIP, MarkupHelper.createLabel("Test Skipped: " + testName, ExtentColor.YELLOW));
-
-            if (result.getThrowable() != null) {
-                test.skip("Reason: " + result.getThrowable().getMessage());
-            }
+        ExtentManager.label(Status.SKIP, "Test Skipped: " + testName, ExtentColor.YELLOW);
+        if (result.getThrowable() != null) {
+            ExtentManager.log(Status.SKIP, "Reason: " + result.getThrowable().getMessage());
         }
-        ExtentManager.removeTest();
+        ExtentManager.endTest();
     }
 
     @Override
@@ -99,14 +90,11 @@ public class ExtentTestListener implements ITestListener {
         String testName = result.getMethod().getMethodName();
         LOGGER.error("Test Failed With Timeout: " + testName);
 
-        ExtentTest test = ExtentManager.getTest();
-        if (test != null) {
-            test.log(Status.FAIL, MarkupHelper.createLabel("Test Failed With Timeout: " + testName, ExtentColor.RED));
-            if (result.getThrowable() != null) {
-                test.fail("Exception: " + result.getThrowable().getMessage());
-            }
+        ExtentManager.label(Status.FAIL, "Test Failed With Timeout: " + testName, ExtentColor.RED);
+        if (result.getThrowable() != null) {
+            ExtentManager.log(Status.FAIL, "Exception: " + result.getThrowable().getMessage());
         }
-        ExtentManager.removeTest();
+        ExtentManager.endTest();
     }
 
     /**
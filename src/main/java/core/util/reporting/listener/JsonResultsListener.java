@@ -0,0 +1,41 @@
+package core.util.reporting.listener;
+
+import core.util.reporting.report.JsonResultsWriter;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Streams one JSON line per test event to the results file, next to the HTML report of {@link ExtentTestListener}
+ */
+public class JsonResultsListener implements ITestListener {
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        JsonResultsWriter.write("start", result);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        JsonResultsWriter.write("pass", result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        JsonResultsWriter.write("fail", result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        JsonResultsWriter.write("skip", result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        JsonResultsWriter.write("fail-within-success-percentage", result);
+    }
+
+    @Override
+    public void onTestFailedWithTimeout(ITestResult result) {
+        JsonResultsWriter.write("timeout", result);
+    }
+}
@@ -1,26 +1,34 @@
 package core.util.reporting.listener;
 
+import core.util.reporting.report.MethodTimings;
 import core.util.reporting.report.TestFailures;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
+import org.testng.IDataProviderListener;
+import org.testng.IDataProviderMethod;
 import org.testng.IInvokedMethod;
 import org.testng.IInvokedMethodListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
 import org.testng.ITestResult;
 import org.testng.Reporter;
 import org.testng.internal.Utils;
 
 import java.util.List;
 
-public class TestFailureListener implements IInvokedMethodListener {
+public class TestFailureListener implements IInvokedMethodListener, IDataProviderListener {
     private static final Logger LOGGER = LogManager.getLogger(TestFailureListener.class);
 
     @Override
     public void beforeInvocation(IInvokedMethod method, ITestResult result) {
         LOGGER.info("Before invocation of " + method.getTestMethod().getMethodName());
+        // Last, so the timing does not include the listener
+        MethodTimings.begin(getKind(method));
     }
 
     @Override
     public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        MethodTimings.end(getKind(method), method.getTestMethod().getQualifiedName());
         LOGGER.info("After invocation of " + method.getTestMethod().getMethodName());
         Reporter.setCurrentTestResult(result);
         if (method.isTestMethod()) {
@@ -59,4 +67,21 @@ public class TestFailureListener implements IInvokedMethodListener {
             }
         }
     }
+
+    @Override
+    public void beforeDataProviderExecution(IDataProviderMethod dataProviderMethod, ITestNGMethod method,
+                                            ITestContext context) {
+        MethodTimings.begin(MethodTimings.Kind.DATA_PROVIDER);
+    }
+
+    @Override
+    public void afterDataProviderExecution(IDataProviderMethod dataProviderMethod, ITestNGMethod method,
+                                           ITestContext context) {
+        MethodTimings.end(MethodTimings.Kind.DATA_PROVIDER, dataProviderMethod.getMethod().getDeclaringClass()
+                .getName() + "." + dataProviderMethod.getMethod().getName());
+    }
+
+    private static MethodTimings.Kind getKind(IInvokedMethod method) {
+        return method.isTestMethod() ? MethodTimings.Kind.TEST : MethodTimings.Kind.CONFIGURATION;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,420 @@
+package core.util.reporting.report;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import core.util.platform.host.file.RuntimeConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous reporting to ExtentReports.
+ * Test threads enqueue immutable events into their own lock-free ring buffer; a single "extent-writer" thread
+ * drains the buffers in batches and applies the events to the Extent model, so test threads never contend on it.
+ * Events of one thread are applied in order. A full buffer makes its thread wait for the writer (backpressure),
+ * which only happens when the writer is far behind. {@link #drain(long)} applies all pending events.
+ * With streamingReport set to true, events go to a {@link StreamingReportWriter} instead of the ExtentReports model.
+ * With reportShard set, e.g. -DreportShard=fork${surefire.forkNumber}, the streamed report is a shard under
+ * "shards" in the report directory, named after the shard and the process id, to be merged by {@link ReportMerger}.
+ */
+public class ExtentEventPipeline {
+    private static final Logger LOGGER = LogManager.getLogger(ExtentEventPipeline.class);
+
+    private static final int BUFFER_CAPACITY = 4096;
+    private static final int BATCH_SIZE = 256;
+    // Idle, the writer is woken by the next event; the timeout only paces the flushes of streamed segments
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final AtomicLong TEST_IDS = new AtomicLong();
+    private static final List<EventBuffer> BUFFERS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<EventBuffer> BUFFER = ThreadLocal.withInitial(() -> {
+        EventBuffer buffer = new EventBuffer(Thread.currentThread());
+        BUFFERS.add(buffer);
+        return buffer;
+    });
+    private static final AtomicReference<Thread> WRITER = new AtomicReference<>();
+    private static volatile boolean stopping;
+    private static volatile boolean idle;
+
+    // Owned by the writer thread
+    private static final Map<Long, ExtentTest> TESTS = new HashMap<>();
+    private static final Map<Long, List<Event>> ORPHANS = new HashMap<>();
+    private static StreamingReportWriter streamingWriter;
+
+    private ExtentEventPipeline() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Create a test in the report
+     *
+     * @return the id of the test, to log to it
+     */
+    public static long startTest(String testName, String description) {
+        long testId = TEST_IDS.incrementAndGet();
+        enqueue(new Event(EventType.START, testId, null, testName, description, null));
+        return testId;
+    }
+
+    public static void log(long testId, Status status, String details) {
+        enqueue(new Event(EventType.LOG, testId, status, details, null, null));
+    }
+
+    /**
+     * Log a colored label, created on the writer thread
+     */
+    public static void label(long testId, Status status, String text, ExtentColor color) {
+        enqueue(new Event(EventType.LABEL, testId, status, text, null, color));
+    }
+
+    /**
+     * Attach a screenshot, added to the test on the writer thread
+     *
+     * @param source the path of the file, or the PNG in Base64 if base64 is true
+     * @param title  the title of the screenshot, or null
+     */
+    public static void screenshot(long testId, String source, String title, boolean base64) {
+        enqueue(new Event(base64 ? EventType.SCREENSHOT_BASE64 : EventType.SCREENSHOT, testId, null, source, title,
+                null));
+    }
+
+    /**
+     * Release the test after its last event
+     */
+    public static void endTest(long testId) {
+        enqueue(new Event(EventType.END, testId, null, null, null, null));
+    }
+
+    /**
+     * Apply all events enqueued so far and stop the writer; it restarts on the next event
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if all events were applied
+     */
+    public static synchronized boolean drain(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        if (hasPending()) {
+            startWriter();
+        }
+        stopping = true;
+        try {
+            Thread writer;
+            while ((writer = WRITER.get()) != null) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    LOGGER.warn("Timed out draining report events");
+                    return false;
+                }
+                LockSupport.unpark(writer);
+                writer.join(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            stopping = false;
+        }
+    }
+
+    /**
+     * Whether the streaming report is enabled, with system property, environment variable or extent-report.yaml,
+     * or a shard is written
+     */
+    public static boolean isStreaming() {
+        return StreamingHolder.ENABLED || StreamingHolder.SHARD_ID != null;
+    }
+
+    /**
+     * Render the streaming report from its segments, after {@link #drain(long)}
+     *
+     * @param htmlFile the report file, replaced by index.html in the shard directory for a shard
+     * @param sections HTML sections rendered after the tests, outside the test counts
+     */
+    public static synchronized void finishStreaming(Path htmlFile, List<String> sections) {
+        StreamingReportWriter writer = getStreamingWriter();
+        try {
+            // Forks started in the same second share the report directory, each renders into its own shard
+            writer.finish(StreamingHolder.SHARD_ID == null ? htmlFile
+                    : writer.getSegmentDirectory().resolve("index.html"), sections);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write streaming report " + htmlFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void enqueue(Event event) {
+        EventBuffer buffer = BUFFER.get();
+        while (!buffer.offer(event)) {
+            // Backpressure: wait for the writer to make room
+            startWriter();
+            LockSupport.unpark(WRITER.get());
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        startWriter();
+        if (idle) {
+            LockSupport.unpark(WRITER.get());
+        }
+    }
+
+    private static void startWriter() {
+        if (WRITER.get() == null) {
+            Thread writer = new Thread(ExtentEventPipeline::run, "extent-writer");
+            writer.setDaemon(true);
+            if (WRITER.compareAndSet(null, writer)) {
+                writer.start();
+            }
+        }
+    }
+
+    private static void run() {
+        long applied = 0;
+        while (true) {
+            int drained = drainBuffers();
+            applied += drained;
+            if (streamingWriter != null) {
+                streamingWriter.flushIfDue();
+            }
+            if (drained == 0) {
+                if (stopping) {
+                    break;
+                }
+                // Set before checking the buffers, so an event enqueued after the check sees it and wakes the writer
+                idle = true;
+                if (!hasPending()) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+        }
+        LOGGER.debug("Report writer stopped after " + applied + " events");
+        WRITER.set(null);
+        // An event may have been enqueued after the last pass
+        if (hasPending()) {
+            startWriter();
+        }
+    }
+
+    private static int drainBuffers() {
+        int drained = 0;
+        for (EventBuffer buffer : BUFFERS) {
+            drained += buffer.drain(BATCH_SIZE);
+            if (buffer.isEmpty() && !buffer.owner.isAlive()) {
+                BUFFERS.remove(buffer);
+            }
+        }
+        return drained;
+    }
+
+    private static boolean hasPending() {
+        for (EventBuffer buffer : BUFFERS) {
+            if (!buffer.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void apply(Event event) {
+        if (isStreaming()) {
+            applyStreaming(event);
+            return;
+        }
+        try {
+            if (event.type == EventType.START) {
+                ExtentTest test = ExtentManager.getInstance().createTest(event.text, event.description);
+                // The writer may apply the event late, the test started when the event was created
+                test.getModel().setStartTime(new Date(event.timestamp));
+                TESTS.put(event.testId, test);
+                List<Event> orphans = ORPHANS.remove(event.testId);
+                if (orphans != null) {
+                    orphans.forEach(ExtentEventPipeline::apply);
+                }
+                return;
+            }
+
+            ExtentTest test = TESTS.get(event.testId);
+            if (test == null) {
+                // Logged from another thread before the start event was applied
+                ORPHANS.computeIfAbsent(event.testId, id -> new ArrayList<>()).add(event);
+                return;
+            }
+            switch (event.type) {
+                case LOG:
+                    test.log(event.status, event.text);
+                    break;
+                case LABEL:
+                    test.log(event.status, MarkupHelper.createLabel(event.text, event.color));
+                    break;
+                case SCREENSHOT:
+                    test.addScreenCaptureFromPath(event.text, event.description);
+                    break;
+                case SCREENSHOT_BASE64:
+                    test.addScreenCaptureFromBase64String(event.text, event.description);
+                    break;
+                case END:
+                    test.getModel().setEndTime(new Date(event.timestamp));
+                    TESTS.remove(event.testId);
+                    break;
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to apply report event " + event.type + " of test " + event.testId + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private static void applyStreaming(Event event) {
+        StreamingReportWriter writer = getStreamingWriter();
+        switch (event.type) {
+            case START:
+                writer.startTest(event.testId, event.text, event.description, event.timestamp);
+                List<Event> orphans = ORPHANS.remove(event.testId);
+                if (orphans != null) {
+                    orphans.forEach(ExtentEventPipeline::applyStreaming);
+                }
+                break;
+            case END:
+                writer.endTest(event.testId, event.timestamp);
+                break;
+            case SCREENSHOT:
+            case SCREENSHOT_BASE64:
+                String source = event.type == EventType.SCREENSHOT_BASE64
+                        ? "data:image/png;base64," + event.text : event.text;
+                if (!writer.screenshot(event.testId, source, event.description)) {
+                    ORPHANS.computeIfAbsent(event.testId, id -> new ArrayList<>()).add(event);
+                }
+                break;
+            default:
+                if (!writer.log(event.testId, event.status, event.text, event.color)) {
+                    ORPHANS.computeIfAbsent(event.testId, id -> new ArrayList<>()).add(event);
+                }
+                break;
+        }
+    }
+
+    private static StreamingReportWriter getStreamingWriter() {
+        if (streamingWriter == null) {
+            String reportDirectory = System.getProperty("report.directory");
+            if (reportDirectory == null || reportDirectory.isEmpty()) {
+                reportDirectory = System.getProperty("user.dir") + "/target/demo-reports/";
+            }
+            String shardId = StreamingHolder.SHARD_ID;
+            streamingWriter = shardId == null
+                    ? new StreamingReportWriter(Paths.get(reportDirectory, "segments"), "main")
+                    : new StreamingReportWriter(Paths.get(reportDirectory, "shards", shardId), shardId);
+        }
+        return streamingWriter;
+    }
+
+    /**
+     * Reads the streaming report settings once
+     */
+    private static final class StreamingHolder {
+        private static final boolean ENABLED = RuntimeConfig.resolve(ExtentReportConfig.STREAMING_REPORT.toString(),
+                ExtentReportConfig.EXTENT_REPORT_CONFIG_FILE_PATH.toString()).getBoolean(false);
+        private static final String SHARD_ID = getShardId();
+
+        private static String getShardId() {
+            String shard = RuntimeConfig.resolve(ExtentReportConfig.REPORT_SHARD.toString(), null).getString(null);
+            if (shard == null || shard.trim().isEmpty()) {
+                return null;
+            }
+            // The process id keeps shards unique when several forks get the same name
+            return shard.trim().replaceAll("[^A-Za-z0-9._-]", "_") + "-" + ProcessHandle.current().pid();
+        }
+    }
+
+    private enum EventType {
+        START,
+        LOG,
+        LABEL,
+        SCREENSHOT,
+        SCREENSHOT_BASE64,
+        END
+    }
+
+    /**
+     * Immutable report event, stamped with the time it was created on the test thread
+     */
+    private static final class Event {
+        private final EventType type;
+        private final long testId;
+        private final long timestamp = System.currentTimeMillis();
+        private final Status status;
+        private final String text;
+        private final String description;
+        private final ExtentColor color;
+
+        Event(EventType type, long testId, Status status, String text, String description, ExtentColor color) {
+            this.type = type;
+            this.testId = testId;
+            this.status = status;
+            this.text = text;
+            this.description = description;
+            this.color = color;
+        }
+    }
+
+    /**
+     * Single producer, single consumer ring buffer of one test thread
+     */
+    private static final class EventBuffer {
+        private final Thread owner;
+        private final AtomicReferenceArray<Event> events = new AtomicReferenceArray<>(BUFFER_CAPACITY);
+        // Next slot to read, written by the writer thread only
+        private final AtomicLong head = new AtomicLong();
+        // Next slot to write, written by the owner thread only
+        private final AtomicLong tail = new AtomicLong();
+
+        EventBuffer(Thread owner) {
+            this.owner = owner;
+        }
+
+        boolean offer(Event event) {
+            long position = tail.get();
+            if (position - head.get() >= BUFFER_CAPACITY) {
+                return false;
+            }
+            events.lazySet((int) (position % BUFFER_CAPACITY), event);
+            // Volatile write, so a stopping writer either drains this event or sees it after it stopped
+            tail.set(position + 1);
+            return true;
+        }
+
+        int drain(int limit) {
+            long position = head.get();
+            long end = Math.min(tail.get(), position + limit);
+            int drained = 0;
+            for (; position < end; position++, drained++) {
+                int index = (int) (position % BUFFER_CAPACITY);
+                Event event = events.get(index);
+                events.lazySet(index, null);
+                apply(event);
+            }
+            head.lazySet(position);
+            return drained;
+        }
+
+        boolean isEmpty() {
+            return head.get() == tail.get();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package core.util.reporting.report;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.ExtentColor;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import core.util.platform.host.file.YamlLoader;
@@ -9,14 +11,24 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ExtentManager {
     private static final Logger LOGGER = LogManager.getLogger(ExtentManager.class);
     private static ExtentReports extent;
+    private static String reportPath;
     private static final ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
 
+    private static final ThreadLocal<Long> currentTestId = new ThreadLocal<>();
+    // Sections of the report that are not tests, rendered on flush
+    private static final List<String> runnerOutput = new CopyOnWriteArrayList<>();
+
     private static final String CONFIG_FILE_PATH = "core/extent-report.yaml";
+    private static final long DRAIN_TIMEOUT_MILLIS = 30000;
 
     private ExtentManager() {
         // Private constructor to prevent instantiation
@@ -49,7 +61,7 @@ public class ExtentManager {
                 reportDirectory = System.getProperty("user.dir") + "/target/demo-reports/";
             }
 
-            String reportPath = reportDirectory + File.separator + reportName;
+            reportPath = reportDirectory + File.separator + reportName;
             LOGGER.info("Creating ExtentReports at: " + reportPath);
 
             // Create ExtentSparkReporter
@@ -85,7 +97,7 @@ public class ExtentManager {
     }
 
     /**
-     * Create a test in the report
+     * Create a test in the report synchronously, on the current thread; it is returned by {@link #getTest()}
      */
     public static synchronized ExtentTest createTest(String testName, String description) {
         ExtentTest test = getInstance().createTest(testName, description);
@@ -94,10 +106,16 @@ public class ExtentManager {
     }
 
     /**
-     * Get the current test
+     * Get the test of the current thread: the test started with {@link #startTest}, e.g. by ExtentTestListener, or
+     * else the test created with {@link #createTest}; null if there is none
      */
-    public static ExtentTest getTest() {
-        return extentTest.get();
+    public static ExtentTestHandle getTest() {
+        Long testId = currentTestId.get();
+        if (testId != null) {
+            return new ExtentTestHandle(testId);
+        }
+        ExtentTest test = extentTest.get();
+        return test == null ? null : new ExtentTestHandle(test);
     }
 
     /**
@@ -108,12 +126,88 @@ public class ExtentManager {
     }
 
     /**
-     * Flush the report
+     * Start a test of the current thread through the asynchronous pipeline, without waiting for the report
+     */
+    public static void startTest(String testName, String description) {
+        currentTestId.set(ExtentEventPipeline.startTest(testName, description));
+    }
+
+    /**
+     * Log to the test started by the current thread with {@link #startTest}, ignored if there is none
+     */
+    public static void log(Status status, String details) {
+        Long testId = currentTestId.get();
+        if (testId != null) {
+            ExtentEventPipeline.log(testId, status, details);
+        }
+    }
+
+    /**
+     * Log a colored label to the test started by the current thread, ignored if there is none
+     */
+    public static void label(Status status, String text, ExtentColor color) {
+        Long testId = currentTestId.get();
+        if (testId != null) {
+            ExtentEventPipeline.label(testId, status, text, color);
+        }
+    }
+
+    /**
+     * End the test started by the current thread
+     */
+    public static void endTest() {
+        Long testId = currentTestId.get();
+        if (testId != null) {
+            ExtentEventPipeline.endTest(testId);
+            currentTestId.remove();
+        }
+    }
+
+    /**
+     * Whether the current thread has a test started with {@link #startTest}
      */
-    public static synchronized void flush() {
+    public static boolean hasTest() {
+        return currentTestId.get() != null;
+    }
+
+    /**
+     * Add an HTML section to the report outside the tests, e.g. the method timings, so test counts are unchanged.
+     * It is rendered on {@link #flush()}, in the test runner output of ExtentReports or after the tests of the
+     * streaming report.
+     */
+    public static void addRunnerOutput(String html) {
+        runnerOutput.add(html);
+    }
+
+    /**
+     * Apply the pending report events, then flush the report; nothing is written if the events cannot be applied in
+     * time, as the report writer thread still owns the report then
+     */
+    public static void flush() {
+        // Not under the class lock: the writer thread needs it to create tests
+        if (!ExtentEventPipeline.drain(DRAIN_TIMEOUT_MILLIS)) {
+            // The writer thread still owns the report model, rendering it now would race with it
+            LOGGER.error("Report events were not all applied within " + DRAIN_TIMEOUT_MILLIS
+                    + " ms, the report is not written");
+            return;
+        }
+        if (ExtentEventPipeline.isStreaming() && getInstance() != null) {
+            // The report is rendered from the streamed segments, the ExtentReports model holds no test
+            ExtentEventPipeline.finishStreaming(Paths.get(reportPath), new ArrayList<>(runnerOutput));
+            return;
+        }
+        flushReport();
+    }
+
+    private static synchronized void flushReport() {
         if (extent != null) {
+            long start = System.nanoTime();
+            for (String output : runnerOutput) {
+                extent.addTestRunnerOutput(output);
+            }
+            runnerOutput.clear();
             extent.flush();
-            LOGGER.info("ExtentReports flushed successfully");
+            LOGGER.info("ExtentReports flushed successfully in " + (System.nanoTime() - start) / 1_000_000L + " ms");
         }
     }
 }
@@ -9,7 +9,16 @@ public enum ExtentReportConfig {
     FOLDER_NEWEST_TEST_OUTPUT("folderNewestTestOutput"),
     SCREENSHOTS_DIRECTORY("screenshotsDirectory"),
     LIMIT_WAIT_FOR_WRITE_REPORT("limitTimeToWaitForWriteReport"),
-    POLLING_WAIT_FOR_CHECK_REPORT("pollingWaitForCheckReport");
+    POLLING_WAIT_FOR_CHECK_REPORT("pollingWaitForCheckReport"),
+    PUBLISH_NEWEST_REPORT_MODE("publishNewestReportMode"),
+    RETENTION_KEEP_RUNS("retentionKeepRuns"),
+    RETENTION_MAX_AGE_DAYS("retentionMaxAgeDays"),
+    RETENTION_MAX_TOTAL_MB("retentionMaxTotalMb"),
+    RETENTION_ACTION("retentionAction"),
+    PACKAGE_REPORT_FORMAT("packageReportFormat"),
+    STREAMING_REPORT("streamingReport"),
+    REPORT_SHARD("reportShard"),
+    RESULTS_FILE("resultsFile");
 
     private String key;
 
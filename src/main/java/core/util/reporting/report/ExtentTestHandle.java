@@ -0,0 +1,102 @@
+package core.util.reporting.report;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.Markup;
+
+/**
+ * Test of the current thread returned by {@link ExtentManager#getTest()}, with the logging methods of ExtentTest.
+ * Tests started through the asynchronous pipeline are logged by enqueuing events, so the test thread never touches
+ * the report model; tests created with {@link ExtentManager#createTest} are logged directly.
+ */
+public final class ExtentTestHandle {
+    private final ExtentTest test;
+    private final long testId;
+
+    ExtentTestHandle(ExtentTest test) {
+        this.test = test;
+        this.testId = 0;
+    }
+
+    ExtentTestHandle(long testId) {
+        this.test = null;
+        this.testId = testId;
+    }
+
+    public ExtentTestHandle log(Status status, String details) {
+        if (test != null) {
+            test.log(status, details);
+        } else {
+            ExtentEventPipeline.log(testId, status, details);
+        }
+        return this;
+    }
+
+    /**
+     * Log a markup, e.g. a code block or a table, rendered on the current thread
+     */
+    public ExtentTestHandle log(Status status, Markup markup) {
+        if (test != null) {
+            test.log(status, markup);
+        } else {
+            ExtentEventPipeline.log(testId, status, markup.getMarkup());
+        }
+        return this;
+    }
+
+    public ExtentTestHandle info(String details) {
+        return log(Status.INFO, details);
+    }
+
+    public ExtentTestHandle pass(String details) {
+        return log(Status.PASS, details);
+    }
+
+    public ExtentTestHandle fail(String details) {
+        return log(Status.FAIL, details);
+    }
+
+    public ExtentTestHandle skip(String details) {
+        return log(Status.SKIP, details);
+    }
+
+    public ExtentTestHandle warning(String details) {
+        return log(Status.WARNING, details);
+    }
+
+    public ExtentTestHandle addScreenCaptureFromPath(String path) {
+        return addScreenCaptureFromPath(path, null);
+    }
+
+    /**
+     * Attach a screenshot file, linked by its path
+     *
+     * @param title the title of the screenshot, or null
+     */
+    public ExtentTestHandle addScreenCaptureFromPath(String path, String title) {
+        if (test != null) {
+            test.addScreenCaptureFromPath(path, title);
+        } else {
+            ExtentEventPipeline.screenshot(testId, path, title, false);
+        }
+        return this;
+    }
+
+    public ExtentTestHandle addScreenCaptureFromBase64String(String base64) {
+        return addScreenCaptureFromBase64String(base64, null);
+    }
+
+    /**
+     * Attach a PNG screenshot embedded in the report
+     *
+     * @param title the title of the screenshot, or null
+     */
+    public ExtentTestHandle addScreenCaptureFromBase64String(String base64, String title) {
+        if (test != null) {
+            test.addScreenCaptureFromBase64String(base64, title);
+        } else {
+            ExtentEventPipeline.screenshot(testId, base64, title, true);
+        }
+        return this;
+    }
+}
@@ -1,14 +1,22 @@
 package core.util.reporting.report;
 
+import core.util.platform.host.file.ArchiveFormat;
+import core.util.platform.host.file.ConfigKey;
+import core.util.platform.host.file.DirectoryPublisher;
+import core.util.platform.host.file.FileWatchHelper;
+import core.util.platform.host.file.ParallelArchiver;
+import core.util.platform.host.file.RuntimeConfig;
 import core.util.platform.host.file.YamlLoader;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
 
 import static core.util.platform.host.file.FileHelper.copyDirectory;
 
@@ -16,95 +24,35 @@ public class HtmlReportGenerator {
     private static final Logger LOGGER = LogManager.getLogger(HtmlReportGenerator.class);
 
     // Configuration constants
-    private static final String CONFIG_FILE_PATH = "core/reporting/extent-report.yaml";
     private static final String DATE_FORMAT = "yyyy_MM_dd";
     private static final String DATE_TIME_FORMAT = "yyyy_MM_dd___HH_mm_ss";
 
-    // Cached configuration values
-    private static Map<String, Object> extentReportSettings;
-    private static String folderTestOutput;
-    private static String folderNewestTestOutput;
-    private static String screenshotsDirectory;
-    private static int limitTimeToWaitForWriteReport;
-    private static int pollingWaitForCheckReport;
+    // Looked up on each use, so a hot reload of the configuration applies to the next run step
+    private static final ConfigKey FOLDER_TEST_OUTPUT = getKey(ExtentReportConfig.FOLDER_TEST_OUTPUT);
+    private static final ConfigKey FOLDER_NEWEST_TEST_OUTPUT = getKey(ExtentReportConfig.FOLDER_NEWEST_TEST_OUTPUT);
+    private static final ConfigKey SCREENSHOTS_DIRECTORY = getKey(ExtentReportConfig.SCREENSHOTS_DIRECTORY);
+    private static final ConfigKey LIMIT_WAIT_FOR_WRITE_REPORT =
+            getKey(ExtentReportConfig.LIMIT_WAIT_FOR_WRITE_REPORT);
+    private static final ConfigKey POLLING_WAIT_FOR_CHECK_REPORT =
+            getKey(ExtentReportConfig.POLLING_WAIT_FOR_CHECK_REPORT);
 
-    static {
-        initializeConfiguration();
-    }
+    private static volatile long lastReportWriteMillis = -1;
+    private static ReportIndex.RunEntry currentRun;
 
     private HtmlReportGenerator() {
         // Private constructor to prevent instantiation
     }
 
-    /**
-     * Initialize configuration from YAML file
-     */
-    private static void initializeConfiguration() {
-        try {
-            extentReportSettings = YamlLoader.loadConfig(CONFIG_FILE_PATH);
-
-            if (extentReportSettings.isEmpty()) {
-                LOGGER.error("Failed to load extent report configuration from: " + CONFIG_FILE_PATH);
-                setDefaultConfiguration();
-                return;
-            }
-
-            folderTestOutput = getConfigString("folder_test_output", "/target/demo-reports/");
-            folderNewestTestOutput = getConfigString("folder_newest_test_output", "/target/demo-reports/latest/");
-            screenshotsDirectory = getConfigString("screenshots_directory", "screenshots/");
-            limitTimeToWaitForWriteReport = getConfigInt("limit_wait_for_write_report", 30000);
-            pollingWaitForCheckReport = getConfigInt("polling_wait_for_check_report", 500);
-
-            LOGGER.info("Configuration loaded successfully");
-        } catch (Exception e) {
-            LOGGER.error("Error initializing configuration: " + e.getMessage(), e);
-            setDefaultConfiguration();
-        }
+    private static ConfigKey getKey(ExtentReportConfig key) {
+        return YamlLoader.getKey(ExtentReportConfig.EXTENT_REPORT_CONFIG_FILE_PATH.toString(), key.toString());
     }
 
-    /**
-     * Set default configuration values
-     */
-    private static void setDefaultConfiguration() {
-        folderTestOutput = "/target/demo-reports/";
-        folderNewestTestOutput = "/target/demo-reports/latest/";
-        screenshotsDirectory = "screenshots/";
-        limitTimeToWaitForWriteReport = 30000;
-        pollingWaitForCheckReport = 500;
-        LOGGER.info("Using default configuration");
+    private static String getFolderTestOutput() {
+        return FOLDER_TEST_OUTPUT.getString("/target/demo-reports/");
     }
 
-    /**
-     * Get string configuration value with default
-     */
-    private static String getConfigString(String key, String defaultValue) {
-        Object value = extentReportSettings.get(key);
-        if (value == null) {
-            LOGGER.warn("Configuration key not found: " + key + ", using default: " + defaultValue);
-            return defaultValue;
-        }
-        return String.valueOf(value);
-    }
-
-    /**
-     * Get integer configuration value with default
-     */
-    private static int getConfigInt(String key, int defaultValue) {
-        Object value = extentReportSettings.get(key);
-        if (value == null) {
-            LOGGER.warn("Configuration key not found: " + key + ", using default: " + defaultValue);
-            return defaultValue;
-        }
-        try {
-            if (value instanceof Integer) {
-                return (Integer) value;
-            }
-            return Integer.parseInt(String.valueOf(value));
-        } catch (NumberFormatException e) {
-            LOGGER.warn("Invalid integer value for key '" + key + "': " + value + ", using default: " + defaultValue,
-                    e);
-            return defaultValue;
-        }
+    private static String getFolderNewestTestOutput() {
+        return FOLDER_NEWEST_TEST_OUTPUT.getString("/target/demo-reports/latest/");
     }
 
     /**
@@ -120,6 +68,7 @@ public class HtmlReportGenerator {
             String strDate = sdfDate.format(cal.getTime());
             String strTime = sdfDateTime.format(cal.getTime());
             String basePath = System.getProperty("user.dir");
+            String folderTestOutput = getFolderTestOutput();
 
             // Create main report directory
             String strReportDirectoryPath = basePath + folderTestOutput + strDate + File.separator + strTime
@@ -127,13 +76,15 @@ public class HtmlReportGenerator {
             if (createDirectory(strReportDirectoryPath)) {
                 System.setProperty("report.directory", strReportDirectoryPath);
                 LOGGER.info("Report directory created: " + strReportDirectoryPath);
+                indexRun(new ReportIndex.RunEntry(strTime, cal.getTimeInMillis(), ReportIndex.RunState.FOLDER, 0,
+                        strDate + "/" + strTime));
             } else {
                 LOGGER.error("Failed to create report directory: " + strReportDirectoryPath);
             }
 
             // Create screenshots directory
             String strScreenshotDirectoryPath = basePath + folderTestOutput + strDate + File.separator + strTime
-                    + File.separator + screenshotsDirectory;
+                    + File.separator + SCREENSHOTS_DIRECTORY.getString("screenshots/");
             if (createDirectory(strScreenshotDirectoryPath)) {
                 System.setProperty("screenshots.directory", strScreenshotDirectoryPath);
                 LOGGER.info("Screenshots directory created: " + strScreenshotDirectoryPath);
@@ -145,6 +96,74 @@ public class HtmlReportGenerator {
         }
     }
 
+    /**
+     * Pack the report directory into an archive next to it, for upload, in the format of packageReportFormat set with
+     * system property, environment variable or extent-report.yaml
+     */
+    public static void packageReport() {
+        String format = RuntimeConfig.resolve(ExtentReportConfig.PACKAGE_REPORT_FORMAT.toString(),
+                ExtentReportConfig.EXTENT_REPORT_CONFIG_FILE_PATH.toString()).getString("none");
+        ArchiveFormat archiveFormat = ArchiveFormat.getArchiveFormatByName(format);
+        if (archiveFormat == null) {
+            LOGGER.debug("Report packaging is disabled");
+            return;
+        }
+
+        String reportDirectory = System.getProperty("report.directory");
+        if (reportDirectory == null || reportDirectory.isEmpty()) {
+            LOGGER.error("Report directory property not set");
+            return;
+        }
+
+        Path source = Paths.get(reportDirectory);
+        Path archive = source.resolveSibling(source.getFileName() + "." + archiveFormat);
+        try {
+            ParallelArchiver.archive(source, archive, archiveFormat);
+            System.setProperty("report.package", archive.toString());
+            LOGGER.info("Report packaged to: " + archive);
+        } catch (IOException e) {
+            LOGGER.error("Error packaging report: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archive or delete old runs in the background, according to the report retention policy
+     */
+    public static void applyReportRetention() {
+        String currentRunId = currentRun == null ? null : currentRun.getRunId();
+        ReportRetention.applyInBackground(getReportsRoot(), currentRunId, ReportRetentionPolicy.load());
+    }
+
+    /**
+     * Record the final size of the current run in the report index, with its package archive and manifest
+     */
+    public static void indexReport() {
+        if (currentRun == null) {
+            LOGGER.warn("No report directory created, nothing to index");
+            return;
+        }
+        try {
+            Path reportDirectory = currentRun.resolve(getReportsRoot());
+            indexRun(currentRun.withStorage(ReportIndex.RunState.FOLDER,
+                    ReportIndex.sizeOfRun(reportDirectory, currentRun.getRunId()), currentRun.getPath()));
+        } catch (IOException e) {
+            LOGGER.error("Error measuring report directory: " + e.getMessage(), e);
+        }
+    }
+
+    private static void indexRun(ReportIndex.RunEntry run) {
+        try {
+            ReportIndex.put(getReportsRoot(), run);
+            currentRun = run;
+        } catch (IOException e) {
+            LOGGER.error("Error updating report index: " + e.getMessage(), e);
+        }
+    }
+
+    private static Path getReportsRoot() {
+        return Paths.get(System.getProperty("user.dir") + getFolderTestOutput());
+    }
+
     /**
      * Create directory with null and existence checks
      */
@@ -168,6 +187,36 @@ public class HtmlReportGenerator {
         }
     }
 
+    /**
+     * Publish newest report to latest directory using the mode of publishNewestReportMode, set with system property,
+     * environment variable or extent-report.yaml.
+     * LINK mode swaps a symbolic link (or a hard link mirror) into place instead of copying files,
+     * and falls back to COPY when the file system supports neither.
+     */
+    public static void publishNewestReport() {
+        String mode = RuntimeConfig.resolve(ExtentReportConfig.PUBLISH_NEWEST_REPORT_MODE.toString(),
+                ExtentReportConfig.EXTENT_REPORT_CONFIG_FILE_PATH.toString()).getString(ReportPublishMode.COPY.toString());
+        ReportPublishMode effectiveMode = ReportPublishMode.getPublishModeByName(mode);
+
+        if (effectiveMode == ReportPublishMode.LINK) {
+            String reportDirectory = System.getProperty("report.directory");
+            if (reportDirectory == null || reportDirectory.isEmpty()) {
+                LOGGER.error("Report directory property not set");
+                return;
+            }
+
+            Path srcFolder = Paths.get(reportDirectory);
+            Path destFolder = Paths.get(System.getProperty("user.dir") + getFolderNewestTestOutput());
+            if (DirectoryPublisher.publishSymbolicLink(srcFolder, destFolder)
+                    || DirectoryPublisher.publishHardLinkMirror(srcFolder, destFolder)) {
+                LOGGER.info("Report published to: " + destFolder);
+                return;
+            }
+            LOGGER.warn("Linking is not supported, falling back to copying the report");
+        }
+        copyNewestReport();
+    }
+
     /**
      * Copy newest report to latest directory
      */
@@ -179,7 +228,7 @@ public class HtmlReportGenerator {
                 return;
             }
 
-            String strNewestTestOutput = System.getProperty("user.dir") + folderNewestTestOutput;
+            String strNewestTestOutput = System.getProperty("user.dir") + getFolderNewestTestOutput();
             File destFolder = new File(strNewestTestOutput);
             File srcFolder = new File(reportDirectory);
 
@@ -188,6 +237,9 @@ public class HtmlReportGenerator {
                 return;
             }
 
+            // A link left by a previous LINK publish would redirect the copy into an older run folder
+            DirectoryPublisher.unlinkIfSymbolicLink(destFolder.toPath());
+
             // Create destination folder if it doesn't exist
             if (!destFolder.exists() && !destFolder.mkdirs()) {
                 LOGGER.error("Failed to create destination folder: " + destFolder.getAbsolutePath());
@@ -202,7 +254,8 @@ public class HtmlReportGenerator {
     }
 
     /**
-     * Wait for report file to be written with retry logic
+     * Wait for report file to be written: returns as soon as the file exists, is not empty and its size has been
+     * stable for the polling interval. Wakes up on file system events rather than sleeping between checks.
      */
     public static void waitForWriteReport(String path, String reportFileName) {
         if (path == null || path.isEmpty() || reportFileName == null || reportFileName.isEmpty()) {
@@ -211,31 +264,27 @@ public class HtmlReportGenerator {
         }
 
         try {
-            String filePath = path + File.separator + reportFileName;
-            int retryCount = 0;
-            int maxRetries = limitTimeToWaitForWriteReport / pollingWaitForCheckReport;
-
-            while (retryCount < maxRetries) {
-                File reportFile = new File(filePath);
-                if (reportFile.exists()) {
-                    LOGGER.info("Report file created successfully: " + filePath);
-                    return;
-                }
-
-                TimeUnit.MILLISECONDS.sleep(pollingWaitForCheckReport);
-                retryCount++;
-
-                if (retryCount % 10 == 0) {
-                    LOGGER.debug("Waiting for report file... Attempt " + retryCount + "/" + maxRetries);
-                }
+            Path reportFile = Paths.get(path, reportFileName);
+            long start = System.nanoTime();
+            Optional<Path> writtenReport = FileWatchHelper.awaitStableFile(reportFile.getParent(),
+                    file -> file.equals(reportFile) && file.toFile().length() > 0,
+                    LIMIT_WAIT_FOR_WRITE_REPORT.getInt(30000), POLLING_WAIT_FOR_CHECK_REPORT.getInt(500));
+
+            if (writtenReport.isPresent()) {
+                lastReportWriteMillis = (System.nanoTime() - start) / 1_000_000L;
+                LOGGER.info("Report file created successfully in " + lastReportWriteMillis + " ms: " + reportFile);
+            } else {
+                LOGGER.warn("Report file not created within timeout period: " + reportFile);
             }
-
-            LOGGER.warn("Report file not created within timeout period: " + filePath);
-        } catch (InterruptedException ex) {
-            LOGGER.error("Thread interrupted while waiting for report: " + ex.getMessage(), ex);
-            Thread.currentThread().interrupt();
         } catch (Exception e) {
             LOGGER.error("Error waiting for report file: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Get how long the last successful waitForWriteReport waited for the report to be written, -1 if none
+     */
+    public static long getLastReportWriteMillis() {
+        return lastReportWriteMillis;
+    }
 }
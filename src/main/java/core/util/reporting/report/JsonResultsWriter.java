@@ -0,0 +1,295 @@
+package core.util.reporting.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import core.util.platform.host.file.RuntimeConfig;
+import core.util.reporting.retry.RetryAnalyzer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Machine-readable results of the run, one compact JSON line per test event, for dashboards and analytics jobs.
+ * The line is serialized on the test thread and queued; a single "results-writer" thread appends the queued lines
+ * to the results file with one gathering {@link FileChannel} write per batch, at the latest every 200 ms, so the
+ * file can be tailed while the run is going and only ever contains whole lines.
+ * The file is "results.jsonl" in the report directory, set with resultsFile in extent-report.yaml, system property or
+ * environment variable; an empty name disables it. Forks sharing the report directory append to the same file.
+ */
+public class JsonResultsWriter {
+    private static final Logger LOGGER = LogManager.getLogger(JsonResultsWriter.class);
+
+    private static final int BATCH_SIZE = 256;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final int FINGERPRINT_FRAMES = 5;
+    private static final int MAX_MESSAGE_LENGTH = 500;
+    private static final Pattern VARIABLE_PART = Pattern.compile("0x[0-9a-fA-F]+|\\d+");
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ThreadLocal<ByteArrayOutputStream> LINE_BUFFER =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(512));
+
+    private static final Queue<byte[]> LINES = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger PENDING = new AtomicInteger();
+    private static final AtomicReference<Thread> WRITER = new AtomicReference<>();
+    private static volatile boolean stopping;
+    private static volatile boolean failed;
+
+    private JsonResultsWriter() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Queue one line for a test event
+     *
+     * @param event  the event, e.g. "start", "pass", "fail", "skip"
+     * @param result the result of the test
+     */
+    public static void write(String event, ITestResult result) {
+        if (!isEnabled()) {
+            return;
+        }
+        byte[] line;
+        try {
+            line = toLine(event, result);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot serialize " + event + " event of " + result.getName() + ": " + e.getMessage());
+            return;
+        }
+        LINES.add(line);
+        startWriter();
+        if (PENDING.incrementAndGet() >= BATCH_SIZE) {
+            LockSupport.unpark(WRITER.get());
+        }
+    }
+
+    /**
+     * Write all queued lines and stop the writer; it restarts on the next event
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if all lines were written
+     */
+    public static synchronized boolean close(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        stopping = true;
+        try {
+            Thread writer;
+            while ((writer = WRITER.get()) != null) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    LOGGER.warn("Timed out writing test results");
+                    return false;
+                }
+                LockSupport.unpark(writer);
+                writer.join(remaining);
+            }
+            return LINES.isEmpty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            stopping = false;
+        }
+    }
+
+    /**
+     * Whether results are written, with a non-empty resultsFile and no earlier write error
+     */
+    public static boolean isEnabled() {
+        return !failed && !ResultsHolder.FILE_NAME.isEmpty();
+    }
+
+    /**
+     * Get the results file in the current report directory
+     */
+    public static Path getResultsFile() {
+        String reportDirectory = System.getProperty("report.directory");
+        if (reportDirectory == null || reportDirectory.isEmpty()) {
+            reportDirectory = System.getProperty("user.dir") + "/target/demo-reports/";
+        }
+        return Paths.get(reportDirectory, ResultsHolder.FILE_NAME);
+    }
+
+    private static byte[] toLine(String event, ITestResult result) throws IOException {
+        ByteArrayOutputStream buffer = LINE_BUFFER.get();
+        buffer.reset();
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(buffer)) {
+            json.writeStartObject();
+            json.writeStringField("event", event);
+            json.writeStringField("name", result.getMethod().getMethodName());
+            json.writeStringField("class", result.getTestClass().getName());
+            json.writeStringField("status", getStatusName(result.getStatus()));
+            json.writeNumberField("start", result.getStartMillis());
+            if (result.getEndMillis() > 0) {
+                json.writeNumberField("end", result.getEndMillis());
+                json.writeNumberField("duration", result.getEndMillis() - result.getStartMillis());
+            }
+            json.writeStringField("thread", Thread.currentThread().getName());
+            json.writeNumberField("retries", getRetryCount(result));
+            json.writeBooleanField("retried", result.wasRetried());
+            if (result.getTestContext() != null) {
+                json.writeStringField("test", result.getTestContext().getName());
+            }
+            Throwable throwable = result.getThrowable();
+            if (throwable != null) {
+                json.writeStringField("error", truncate(throwable.toString()));
+                json.writeStringField("fingerprint", fingerprint(throwable));
+            }
+            json.writeEndObject();
+        }
+        buffer.write('\n');
+        return buffer.toByteArray();
+    }
+
+    private static String getStatusName(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS:
+                return "PASS";
+            case ITestResult.FAILURE:
+                return "FAIL";
+            case ITestResult.SKIP:
+                return "SKIP";
+            case ITestResult.STARTED:
+                return "STARTED";
+            default:
+                return String.valueOf(status);
+        }
+    }
+
+    private static int getRetryCount(ITestResult result) {
+        IRetryAnalyzer analyzer = result.getMethod().getRetryAnalyzer(result);
+        return analyzer instanceof RetryAnalyzer ? ((RetryAnalyzer) analyzer).getRetryCount() : 0;
+    }
+
+    private static String truncate(String text) {
+        return text.length() <= MAX_MESSAGE_LENGTH ? text : text.substring(0, MAX_MESSAGE_LENGTH) + "...";
+    }
+
+    /**
+     * Stable identifier of a failure cause, to group the same failure across tests and runs: hash of the root cause
+     * type, its message with numbers and hex values masked, and its top stack frames without line numbers
+     */
+    static String fingerprint(Throwable throwable) {
+        // The visited causes stop at a cycle, e.g. A caused by B caused by A, as Throwable.printStackTrace does
+        Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Throwable cause = throwable;
+        visited.add(cause);
+        while (cause.getCause() != null && visited.add(cause.getCause())) {
+            cause = cause.getCause();
+        }
+        StringBuilder key = new StringBuilder(cause.getClass().getName());
+        if (cause.getMessage() != null) {
+            key.append('|').append(VARIABLE_PART.matcher(cause.getMessage()).replaceAll("#"));
+        }
+        StackTraceElement[] frames = cause.getStackTrace();
+        for (int i = 0; i < Math.min(FINGERPRINT_FRAMES, frames.length); i++) {
+            key.append('|').append(frames[i].getClassName()).append('.').append(frames[i].getMethodName());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xf, 16))
+                        .append(Character.forDigit(digest[i] & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void startWriter() {
+        if (WRITER.get() == null) {
+            Thread writer = new Thread(JsonResultsWriter::run, "results-writer");
+            writer.setDaemon(true);
+            if (WRITER.compareAndSet(null, writer)) {
+                writer.start();
+            }
+        }
+    }
+
+    private static void run() {
+        Path file = getResultsFile();
+        long written = 0;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                while (true) {
+                    int lines = writeBatch(channel);
+                    written += lines;
+                    if (lines < BATCH_SIZE && LINES.isEmpty()) {
+                        if (stopping) {
+                            break;
+                        }
+                        LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to write test results " + file + ", results are disabled: " + e.getMessage(), e);
+            failed = true;
+            LINES.clear();
+        }
+        LOGGER.debug("Results writer stopped after " + written + " lines to " + file);
+        WRITER.set(null);
+        // A line may have been queued after the last pass
+        if (!LINES.isEmpty() && !failed) {
+            startWriter();
+        }
+    }
+
+    private static int writeBatch(FileChannel channel) throws IOException {
+        ByteBuffer[] batch = new ByteBuffer[BATCH_SIZE];
+        int count = 0;
+        byte[] line;
+        while (count < BATCH_SIZE && (line = LINES.poll()) != null) {
+            batch[count++] = ByteBuffer.wrap(line);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        // A gathering write may be partial, continue from the first buffer with remaining bytes
+        int offset = 0;
+        while (offset < count) {
+            channel.write(batch, offset, count - offset);
+            while (offset < count && !batch[offset].hasRemaining()) {
+                offset++;
+            }
+        }
+        PENDING.addAndGet(-count);
+        return count;
+    }
+
+    /**
+     * Reads the results file name once
+     */
+    private static final class ResultsHolder {
+        private static final String FILE_NAME = RuntimeConfig.resolve(ExtentReportConfig.RESULTS_FILE.toString(),
+                ExtentReportConfig.EXTENT_REPORT_CONFIG_FILE_PATH.toString()).getString("results.jsonl").trim();
+    }
+}
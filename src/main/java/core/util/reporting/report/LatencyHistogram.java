@@ -0,0 +1,101 @@
+package core.util.reporting.report;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of durations in microseconds, in the style of HdrHistogram: values below 64 are counted
+ * exactly, larger values in 32 linear sub-buckets per power of two, so every recorded value is within about 3% of
+ * its bucket. The counts grow with the largest value seen; a run of fast methods stays a few hundred bytes.
+ * Not synchronized: each histogram is written by one thread, and read or merged once that thread is done.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    private long[] counts = new long[SUB_BUCKETS];
+    private long count;
+    private long total;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    void record(long value) {
+        long micros = Math.max(0, value);
+        int index = indexOf(micros);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+        }
+        counts[index]++;
+        count++;
+        total += micros;
+        min = Math.min(min, micros);
+        max = Math.max(max, micros);
+    }
+
+    void merge(LatencyHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        total += other.total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Get the value at a percentile, the highest value of its bucket bounded by the largest recorded value
+     *
+     * @param percentile the percentile, from 0 to 100
+     */
+    long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift) - HALF_SUB_BUCKETS;
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long lowest = (long) (HALF_SUB_BUCKETS + (index - SUB_BUCKETS) % HALF_SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
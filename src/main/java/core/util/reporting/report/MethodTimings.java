@@ -0,0 +1,265 @@
+package core.util.reporting.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import core.util.platform.host.file.AtomicFiles;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wall and CPU time of the invoked methods: tests, configuration methods and data providers.
+ * Each thread records into its own histograms, without locks or shared writes; {@link #report()} merges them at the
+ * end of the run, once TestNG has joined its workers, into "method-timings.json" in the report directory and a
+ * "Method Timings" section of the report, outside the tests, with the slowest methods and their p50/p95/p99.
+ * CPU time is recorded when the JVM supports measuring the CPU time of the current thread.
+ */
+public class MethodTimings {
+    private static final Logger LOGGER = LogManager.getLogger(MethodTimings.class);
+
+    private static final String TIMINGS_FILE = "method-timings.json";
+    private static final int SLOWEST_METHODS = 20;
+    private static final double[] PERCENTILES = {50, 95, 99};
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+            && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final List<Recorder> RECORDERS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Recorder> RECORDER = ThreadLocal.withInitial(() -> {
+        Recorder recorder = new Recorder();
+        RECORDERS.add(recorder);
+        return recorder;
+    });
+
+    /**
+     * Kind of invoked method
+     */
+    public enum Kind {
+        TEST("test"),
+        CONFIGURATION("configuration"),
+        DATA_PROVIDER("dataProvider");
+
+        private final String name;
+
+        Kind(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    private MethodTimings() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Start timing a method on the current thread
+     */
+    public static void begin(Kind kind) {
+        Recorder recorder = RECORDER.get();
+        int slot = kind.ordinal();
+        recorder.cpuStart[slot] = CPU_TIME ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0;
+        recorder.wallStart[slot] = System.nanoTime();
+    }
+
+    /**
+     * Stop timing the method started with {@link #begin} and record it
+     *
+     * @param kind   the kind of the method
+     * @param method the qualified name of the method
+     */
+    public static void end(Kind kind, String method) {
+        long wallEnd = System.nanoTime();
+        long cpuEnd = CPU_TIME ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0;
+        Recorder recorder = RECORDER.get();
+        int slot = kind.ordinal();
+        if (recorder.wallStart[slot] == 0) {
+            // No begin, e.g. a listener registered while the method was running
+            return;
+        }
+        Timing timing = recorder.timings.get(kind).computeIfAbsent(method, name -> new Timing(kind, name));
+        timing.wall.record((wallEnd - recorder.wallStart[slot]) / 1000);
+        if (CPU_TIME) {
+            timing.cpu.record((cpuEnd - recorder.cpuStart[slot]) / 1000);
+        }
+        recorder.wallStart[slot] = 0;
+    }
+
+    /**
+     * Merge the timings of all threads, slowest total wall time first
+     */
+    static List<Timing> merge() {
+        Map<Kind, Map<String, Timing>> merged = new EnumMap<>(Kind.class);
+        for (Recorder recorder : RECORDERS) {
+            for (Map.Entry<Kind, Map<String, Timing>> timings : recorder.timings.entrySet()) {
+                Map<String, Timing> mergedOfKind = merged.computeIfAbsent(timings.getKey(), kind -> new HashMap<>());
+                for (Timing timing : timings.getValue().values()) {
+                    mergedOfKind.computeIfAbsent(timing.method, name -> new Timing(timing.kind, name)).merge(timing);
+                }
+            }
+        }
+        List<Timing> all = new ArrayList<>();
+        merged.values().forEach(timings -> all.addAll(timings.values()));
+        all.sort(Comparator.comparingLong((Timing timing) -> timing.wall.getTotal()).reversed());
+        return all;
+    }
+
+    /**
+     * Write the merged timings to the JSON file and the slowest methods to the report, before the report is flushed
+     */
+    public static void report() {
+        List<Timing> timings = merge();
+        if (timings.isEmpty()) {
+            return;
+        }
+        Path file = getTimingsFile();
+        try {
+            AtomicFiles.write(file, toJson(timings));
+            LOGGER.info("Method timings of " + timings.size() + " methods written to " + file);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write method timings " + file + ": " + e.getMessage(), e);
+        }
+
+        // Not a test, so the test counts of the report only reflect real tests
+        ExtentManager.addRunnerOutput("<h2>Method Timings</h2>\n<p>Slowest methods by total wall time, in milliseconds"
+                + "</p>\n" + toHtmlTable(timings.subList(0, Math.min(SLOWEST_METHODS, timings.size()))));
+    }
+
+    private static Path getTimingsFile() {
+        String reportDirectory = System.getProperty("report.directory");
+        if (reportDirectory == null || reportDirectory.isEmpty()) {
+            reportDirectory = System.getProperty("user.dir") + "/target/demo-reports/";
+        }
+        return Paths.get(reportDirectory, TIMINGS_FILE);
+    }
+
+    private static byte[] toJson(List<Timing> timings) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * timings.size());
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(bytes)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeStringField("unit", "microseconds");
+            json.writeBooleanField("cpuTime", CPU_TIME);
+            json.writeArrayFieldStart("methods");
+            for (Timing timing : timings) {
+                json.writeStartObject();
+                json.writeStringField("kind", timing.kind.toString());
+                json.writeStringField("method", timing.method);
+                json.writeNumberField("count", timing.wall.getCount());
+                writeHistogram(json, "wall", timing.wall);
+                if (CPU_TIME) {
+                    writeHistogram(json, "cpu", timing.cpu);
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeHistogram(JsonGenerator json, String name, LatencyHistogram histogram)
+            throws IOException {
+        json.writeObjectFieldStart(name);
+        json.writeNumberField("total", histogram.getTotal());
+        json.writeNumberField("min", histogram.getMin());
+        for (double percentile : PERCENTILES) {
+            json.writeNumberField("p" + (int) percentile, histogram.getValueAtPercentile(percentile));
+        }
+        json.writeNumberField("max", histogram.getMax());
+        json.writeEndObject();
+    }
+
+    private static String toHtmlTable(List<Timing> timings) {
+        StringBuilder html = new StringBuilder("<table class='table table-sm'><thead><tr><th>Method</th>"
+                + "<th>Kind</th><th>Count</th><th>Total</th><th>p50</th><th>p95</th><th>p99</th><th>Max</th>"
+                + (CPU_TIME ? "<th>CPU total</th>" : "") + "</tr></thead><tbody>");
+        for (Timing timing : timings) {
+            html.append("<tr><td>").append(escapeHtml(timing.method)).append("</td><td>").append(timing.kind)
+                    .append("</td><td>").append(timing.wall.getCount())
+                    .append("</td><td>").append(toMillis(timing.wall.getTotal()));
+            for (double percentile : PERCENTILES) {
+                html.append("</td><td>").append(toMillis(timing.wall.getValueAtPercentile(percentile)));
+            }
+            html.append("</td><td>").append(toMillis(timing.wall.getMax()));
+            if (CPU_TIME) {
+                html.append("</td><td>").append(toMillis(timing.cpu.getTotal()));
+            }
+            html.append("</td></tr>");
+        }
+        return html.append("</tbody></table>").toString();
+    }
+
+    private static String toMillis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * Timings of one method
+     */
+    static final class Timing {
+        private final Kind kind;
+        private final String method;
+        private final LatencyHistogram wall = new LatencyHistogram();
+        private final LatencyHistogram cpu = new LatencyHistogram();
+
+        Timing(Kind kind, String method) {
+            this.kind = kind;
+            this.method = method;
+        }
+
+        void merge(Timing other) {
+            wall.merge(other.wall);
+            cpu.merge(other.cpu);
+        }
+
+        Kind getKind() {
+            return kind;
+        }
+
+        String getMethod() {
+            return method;
+        }
+
+        LatencyHistogram getWall() {
+            return wall;
+        }
+    }
+
+    /**
+     * Start times and histograms of one thread, written by that thread only
+     */
+    private static final class Recorder {
+        private final long[] wallStart = new long[Kind.values().length];
+        private final long[] cpuStart = new long[Kind.values().length];
+        private final Map<Kind, Map<String, Timing>> timings = new EnumMap<>(Kind.class);
+
+        Recorder() {
+            for (Kind kind : Kind.values()) {
+                timings.put(kind, new HashMap<>());
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package core.util.reporting.report;
+
+import core.util.platform.host.file.AtomicFiles;
+import core.util.platform.host.file.FileQuery;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Index of the past runs under the report output directory, so runs can be listed without scanning it.
+ * Stored as one tab separated line per run in "runs.index", oldest first. Updates hold a file lock,
+ * so parallel forks sharing the output directory do not lose each other's entries.
+ */
+public class ReportIndex {
+    private static final Logger LOGGER = LogManager.getLogger(ReportIndex.class);
+
+    private static final String INDEX_FILE = "runs.index";
+    private static final String LOCK_FILE = ".runs.index.lock";
+    private static final String HEADER = "# runId\tstartedMillis\tstate\tbytes\tpath";
+    private static final String RUN_ID_REGEX = "\\d{4}_\\d{2}_\\d{2}___\\d{2}_\\d{2}_\\d{2}";
+    private static final String ARCHIVE_EXTENSION = ".zip";
+
+    // File locks are held per JVM, so threads of the same JVM are serialized here first
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    private ReportIndex() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Get all indexed runs, oldest first. The first call on a directory without index builds it with one scan.
+     *
+     * @param reportsRoot the report output directory
+     * @return the runs
+     * @throws IOException if the index cannot be read
+     */
+    public static List<RunEntry> list(Path reportsRoot) throws IOException {
+        Path index = reportsRoot.resolve(INDEX_FILE);
+        if (Files.exists(index)) {
+            return read(index);
+        }
+        update(reportsRoot, UnaryOperator.identity());
+        return read(index);
+    }
+
+    /**
+     * Get the newest indexed run
+     */
+    public static Optional<RunEntry> latest(Path reportsRoot) throws IOException {
+        List<RunEntry> runs = list(reportsRoot);
+        return runs.isEmpty() ? Optional.empty() : Optional.of(runs.get(runs.size() - 1));
+    }
+
+    /**
+     * Add a run, or replace the entry with the same run id
+     */
+    public static void put(Path reportsRoot, RunEntry run) throws IOException {
+        update(reportsRoot, runs -> {
+            runs.removeIf(existing -> existing.runId.equals(run.runId));
+            runs.add(run);
+            return runs;
+        });
+    }
+
+    /**
+     * Remove a run from the index
+     */
+    public static void remove(Path reportsRoot, String runId) throws IOException {
+        update(reportsRoot, runs -> {
+            runs.removeIf(existing -> existing.runId.equals(runId));
+            return runs;
+        });
+    }
+
+    /**
+     * Read, change and write the index atomically under the index lock
+     *
+     * @param reportsRoot the report output directory
+     * @param change      receives a mutable list of the runs and returns the runs to store
+     * @throws IOException if the index cannot be read or written
+     */
+    public static void update(Path reportsRoot, UnaryOperator<List<RunEntry>> change) throws IOException {
+        Files.createDirectories(reportsRoot);
+        Path index = reportsRoot.resolve(INDEX_FILE);
+        LOCK.lock();
+        try (FileChannel lockChannel = FileChannel.open(reportsRoot.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+                FileLock ignored = lockChannel.lock()) {
+            List<RunEntry> runs = Files.exists(index) ? read(index) : scan(reportsRoot);
+            List<RunEntry> changed = new ArrayList<>(change.apply(runs));
+            changed.sort(Comparator.comparing(RunEntry::getRunId));
+
+            StringBuilder content = new StringBuilder(HEADER).append('\n');
+            for (RunEntry run : changed) {
+                content.append(run.format()).append('\n');
+            }
+            AtomicFiles.write(index, content.toString().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Get the total size of the regular files under a path
+     */
+    public static long sizeOf(Path path) throws IOException {
+        long[] total = new long[1];
+        try {
+            Files.walkFileTree(path, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    total[0] += attrs.size();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        return total[0];
+    }
+
+    /**
+     * Get the disk use of a run: its folder or archive and the files next to it named after the run id, e.g. the
+     * package archive and its manifest
+     *
+     * @param path  the run folder or archive
+     * @param runId the run id
+     */
+    public static long sizeOfRun(Path path, String runId) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        long total = 0;
+        try (Stream<Path> siblings = Files.list(directory)) {
+            for (Path sibling : (Iterable<Path>) siblings::iterator) {
+                if (sibling.getFileName().toString().startsWith(runId)) {
+                    total += sizeOf(sibling);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        return total;
+    }
+
+    private static List<RunEntry> read(Path index) throws IOException {
+        List<RunEntry> runs = new ArrayList<>();
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            RunEntry run = RunEntry.parse(line);
+            if (run != null) {
+                runs.add(run);
+            } else {
+                LOGGER.warn("Skipping invalid line in " + index + ": " + line);
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Build the entries from the run folders and archives found on disk, used once when there is no index yet
+     */
+    private static List<RunEntry> scan(Path reportsRoot) throws IOException {
+        // One entry per run, its folder if it still has one, else its archive
+        Map<String, Path> paths = new HashMap<>();
+        try (Stream<Path> found = FileQuery.in(reportsRoot).filesOnly(false).maxDepth(2)
+                .nameMatches(RUN_ID_REGEX + "(\\" + ARCHIVE_EXTENSION + ")?").stream()) {
+            for (Path path : (Iterable<Path>) found::iterator) {
+                String name = path.getFileName().toString();
+                boolean archive = name.endsWith(ARCHIVE_EXTENSION);
+                String runId = archive ? name.substring(0, name.length() - ARCHIVE_EXTENSION.length()) : name;
+                if (!archive || !paths.containsKey(runId)) {
+                    paths.put(runId, path);
+                }
+            }
+        }
+        List<RunEntry> runs = new ArrayList<>();
+        for (Map.Entry<String, Path> run : paths.entrySet()) {
+            Path path = run.getValue();
+            runs.add(new RunEntry(run.getKey(), Files.getLastModifiedTime(path).toMillis(),
+                    Files.isDirectory(path) ? RunState.FOLDER : RunState.ARCHIVE, sizeOfRun(path, run.getKey()),
+                    reportsRoot.relativize(path).toString().replace('\\', '/')));
+        }
+        LOGGER.info("Indexed " + runs.size() + " existing runs under " + reportsRoot);
+        return runs;
+    }
+
+    /**
+     * How a run is stored
+     */
+    public enum RunState {
+        FOLDER,
+        ARCHIVE
+    }
+
+    /**
+     * One run of the index
+     */
+    public static final class RunEntry {
+        private final String runId;
+        private final long startedMillis;
+        private final RunState state;
+        private final long bytes;
+        private final String path;
+
+        public RunEntry(String runId, long startedMillis, RunState state, long bytes, String path) {
+            this.runId = runId;
+            this.startedMillis = startedMillis;
+            this.state = state;
+            this.bytes = bytes;
+            this.path = path;
+        }
+
+        public String getRunId() {
+            return runId;
+        }
+
+        public long getStartedMillis() {
+            return startedMillis;
+        }
+
+        public RunState getState() {
+            return state;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Get the path of the run folder or archive, relative to the report output directory
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Get the path of the run folder or archive
+         */
+        public Path resolve(Path reportsRoot) {
+            return reportsRoot.resolve(path);
+        }
+
+        /**
+         * Copy of this entry with a different storage
+         */
+        public RunEntry withStorage(RunState newState, long newBytes, String newPath) {
+            return new RunEntry(runId, startedMillis, newState, newBytes, newPath);
+        }
+
+        private String format() {
+            return String.join("\t", runId, String.valueOf(startedMillis), state.name(), String.valueOf(bytes), path);
+        }
+
+        private static RunEntry parse(String line) {
+            String[] columns = line.split("\t", 5);
+            if (columns.length != 5) {
+                return null;
+            }
+            try {
+                return new RunEntry(columns[0], Long.parseLong(columns[1]), RunState.valueOf(columns[2]),
+                        Long.parseLong(columns[3]), columns[4]);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return runId + " (" + state + ", " + bytes + " bytes): " + path;
+        }
+    }
+}
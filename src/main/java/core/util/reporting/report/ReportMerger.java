@@ -0,0 +1,261 @@
+package core.util.reporting.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import core.util.platform.host.file.ChecksumService;
+import core.util.platform.host.file.FileQuery;
+import core.util.platform.host.file.YamlLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges the report shards of several forks or CI jobs into one report.
+ * A shard is a directory with a "shard.json" manifest and JSON segments, written by {@link StreamingReportWriter}
+ * when reportShard is set. Counts are taken from the manifests and tests are streamed from the segments once,
+ * so merging is linear in the number of tests. Screenshots are copied once per content into "assets", named by
+ * their SHA-256, and the links of the tests are rewritten to them.
+ * <p>
+ * Usage: {@code java core.util.reporting.report.ReportMerger <output-directory> <shard-or-parent-directory>...}
+ */
+public class ReportMerger {
+    private static final Logger LOGGER = LogManager.getLogger(ReportMerger.class);
+
+    private static final String ASSET_DIRECTORY = "assets";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private ReportMerger() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            LOGGER.error("Usage: ReportMerger <output-directory> <shard-or-parent-directory>...");
+            System.exit(2);
+        }
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            inputs.add(Paths.get(args[i]));
+        }
+        try {
+            merge(Paths.get(args[0]), inputs);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to merge report shards: " + e.getMessage(), e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Merge shards into one report
+     *
+     * @param outputDirectory the directory of the merged report and its assets
+     * @param inputs          shard directories, or directories searched for shards
+     * @return the merged HTML report
+     */
+    public static Path merge(Path outputDirectory, List<Path> inputs) throws IOException {
+        long start = System.nanoTime();
+        List<Shard> shards = new ArrayList<>();
+        for (Path manifest : findManifests(inputs)) {
+            shards.add(readManifest(manifest));
+        }
+        if (shards.isEmpty()) {
+            throw new IOException("No report shard found in " + inputs);
+        }
+        shards.sort(Comparator.comparingLong(shard -> shard.summary.start));
+
+        StreamingReportWriter.Summary summary = new StreamingReportWriter.Summary();
+        List<Path> segments = new ArrayList<>();
+        for (Shard shard : shards) {
+            summary.merge(shard.summary);
+            segments.addAll(shard.segments);
+        }
+
+        // Shards of forks sharing a run folder share its screenshots directory, each is copied once
+        Map<Path, Map<String, String>> assetsByDirectory = new HashMap<>();
+        int[] copied = new int[2];
+        for (Shard shard : shards) {
+            if (shard.assets != null && !assetsByDirectory.containsKey(shard.assets)) {
+                assetsByDirectory.put(shard.assets, copyAssets(shard.assets, outputDirectory, copied));
+            }
+        }
+
+        String reportName = YamlLoader.getConfigString(ExtentReportConfig.EXTENT_REPORT_CONFIG_FILE_PATH.toString(),
+                ExtentReportConfig.REPORT_NAME.toString(), "Demo_Test_Report.html");
+        Path htmlFile = outputDirectory.resolve(reportName);
+        Map<Path, UnaryOperator<String>> rewriters = new HashMap<>();
+        for (Shard shard : shards) {
+            Map<String, String> assets = shard.assets == null ? null : assetsByDirectory.get(shard.assets);
+            if (assets != null && !assets.isEmpty()) {
+                String prefix = shard.assets.getFileName() + "/";
+                UnaryOperator<String> rewrite = details -> rewriteLinks(details, prefix, assets);
+                shard.segments.forEach(segment -> rewriters.put(segment, rewrite));
+            }
+        }
+
+        StreamingReportWriter.render(htmlFile, "Test Report (" + shards.size() + " shards)", summary, segments,
+                segment -> rewriters.getOrDefault(segment, UnaryOperator.identity()));
+        LOGGER.info("Merged " + summary.total + " tests of " + shards.size() + " shards into " + htmlFile + " in "
+                + (System.nanoTime() - start) / 1_000_000L + " ms; " + copied[0] + " assets copied, " + copied[1]
+                + " duplicates skipped");
+        return htmlFile;
+    }
+
+    private static List<Path> findManifests(List<Path> inputs) {
+        TreeSet<Path> manifests = new TreeSet<>();
+        for (Path input : inputs) {
+            Path manifest = input.resolve(StreamingReportWriter.MANIFEST_FILE);
+            if (Files.isRegularFile(manifest)) {
+                manifests.add(manifest.toAbsolutePath().normalize());
+                continue;
+            }
+            try (Stream<Path> found = FileQuery.in(input).glob(StreamingReportWriter.MANIFEST_FILE).stream()) {
+                found.map(path -> path.toAbsolutePath().normalize()).forEach(manifests::add);
+            }
+        }
+        return new ArrayList<>(manifests);
+    }
+
+    private static Shard readManifest(Path manifest) throws IOException {
+        Path directory = manifest.getParent();
+        Shard shard = new Shard();
+        try (JsonParser parser = JSON_FACTORY.createParser(manifest.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Invalid shard manifest: " + manifest);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "tests":
+                        shard.summary.total = parser.getIntValue();
+                        break;
+                    case "passed":
+                        shard.summary.passed = parser.getIntValue();
+                        break;
+                    case "failed":
+                        shard.summary.failed = parser.getIntValue();
+                        break;
+                    case "skipped":
+                        shard.summary.skipped = parser.getIntValue();
+                        break;
+                    case "start":
+                        shard.summary.start = parser.getLongValue();
+                        break;
+                    case "end":
+                        shard.summary.end = parser.getLongValue();
+                        break;
+                    case "assets":
+                        shard.assets = directory.resolve(parser.getText()).normalize();
+                        break;
+                    case "segments":
+                        while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                            shard.segments.add(directory.resolve(parser.getText()));
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        }
+        return shard;
+    }
+
+    /**
+     * Copy the files of an asset directory into the merged assets, named by content
+     *
+     * @return map of the path relative to the asset directory to the merged path relative to the report
+     */
+    private static Map<String, String> copyAssets(Path assetDirectory, Path outputDirectory, int[] copied)
+            throws IOException {
+        if (!Files.isDirectory(assetDirectory)) {
+            return Collections.emptyMap();
+        }
+        List<Path> files;
+        try (Stream<Path> found = FileQuery.in(assetDirectory).stream()) {
+            files = found.collect(Collectors.toList());
+        }
+
+        Path mergedAssets = outputDirectory.resolve(ASSET_DIRECTORY);
+        Files.createDirectories(mergedAssets);
+        Map<Path, String> checksums = ChecksumService.checksumAll(files, ChecksumService.Algorithm.SHA_256);
+        Map<String, String> assets = new HashMap<>();
+        for (Path file : files) {
+            String checksum = checksums.get(file);
+            if (checksum == null) {
+                continue;
+            }
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            String mergedName = checksum + (dot > 0 ? name.substring(dot) : "");
+            try {
+                Files.copy(file, mergedAssets.resolve(mergedName));
+                copied[0]++;
+            } catch (FileAlreadyExistsException e) {
+                copied[1]++;
+            }
+            assets.put(assetDirectory.relativize(file).toString().replace('\\', '/'),
+                    ASSET_DIRECTORY + "/" + mergedName);
+        }
+        return assets;
+    }
+
+    /**
+     * Replace each link containing "&lt;asset directory name&gt;/&lt;file&gt;" with the merged asset path
+     */
+    static String rewriteLinks(String details, String prefix, Map<String, String> assets) {
+        int index = details.indexOf(prefix);
+        if (index < 0) {
+            return details;
+        }
+        StringBuilder rewritten = new StringBuilder(details.length());
+        int copiedUpTo = 0;
+        while (index >= 0) {
+            int tokenStart = index;
+            while (tokenStart > copiedUpTo && !isDelimiter(details.charAt(tokenStart - 1))) {
+                tokenStart--;
+            }
+            int tokenEnd = index + prefix.length();
+            while (tokenEnd < details.length() && !isDelimiter(details.charAt(tokenEnd))) {
+                tokenEnd++;
+            }
+            String merged = assets.get(details.substring(index + prefix.length(), tokenEnd));
+            if (merged != null) {
+                rewritten.append(details, copiedUpTo, tokenStart).append(merged);
+                copiedUpTo = tokenEnd;
+            }
+            index = details.indexOf(prefix, tokenEnd);
+        }
+        return rewritten.append(details, copiedUpTo, details.length()).toString();
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == '"' || c == '\'' || c == '(' || c == ')' || c == '<' || c == '>' || c == '='
+                || Character.isWhitespace(c);
+    }
+
+    /**
+     * A shard read from its manifest
+     */
+    private static final class Shard {
+        private final StreamingReportWriter.Summary summary = new StreamingReportWriter.Summary();
+        private final List<Path> segments = new ArrayList<>();
+        private Path assets;
+    }
+}
@@ -0,0 +1,32 @@
+package core.util.reporting.report;
+
+public enum ReportPublishMode {
+    COPY("copy"),
+    LINK("link"),
+    ;
+
+    private final String mode;
+
+    ReportPublishMode(String mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public String toString() {
+        return this.mode;
+    }
+
+    /**
+     * Get ReportPublishMode by name, defaulting to COPY for unknown values
+     */
+    public static ReportPublishMode getPublishModeByName(String name) {
+        if (name != null) {
+            for (ReportPublishMode publishMode : values()) {
+                if (publishMode.mode.equalsIgnoreCase(name.trim())) {
+                    return publishMode;
+                }
+            }
+        }
+        return COPY;
+    }
+}
@@ -0,0 +1,196 @@
+package core.util.reporting.report;
+
+import core.util.platform.host.file.AsyncFileCleaner;
+import core.util.platform.host.file.ArchiveFormat;
+import core.util.platform.host.file.ParallelArchiver;
+import core.util.reporting.report.ReportIndex.RunEntry;
+import core.util.reporting.report.ReportIndex.RunState;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Applies the report retention policy on a low priority background thread: run folders over the run count or age
+ * limit are zipped into an archive next to them (or deleted), then the oldest runs are deleted while the total size
+ * is over the limit. The current run is never touched. Progress is recorded in the {@link ReportIndex}.
+ */
+public class ReportRetention {
+    private static final Logger LOGGER = LogManager.getLogger(ReportRetention.class);
+
+    private static final String ARCHIVE_EXTENSION = ".zip";
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-retention");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private static volatile CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+
+    private ReportRetention() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Apply the policy in the background
+     *
+     * @param reportsRoot  the report output directory
+     * @param currentRunId the run id of the running execution, kept as it is
+     * @param policy       the retention policy
+     * @return future completing when the policy has been applied
+     */
+    public static synchronized CompletableFuture<Void> applyInBackground(Path reportsRoot, String currentRunId,
+            ReportRetentionPolicy policy) {
+        if (!policy.isEnabled()) {
+            LOGGER.debug("Report retention is disabled");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> apply(reportsRoot, currentRunId, policy),
+                EXECUTOR);
+        pending = future;
+        return future;
+    }
+
+    /**
+     * Wait for the background retention work started last
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return true if it finished in time
+     */
+    public static boolean awaitCompletion(long timeoutMillis) {
+        try {
+            pending.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.warn("Report retention did not complete: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Apply the policy on the calling thread
+     */
+    public static void apply(Path reportsRoot, String currentRunId, ReportRetentionPolicy policy) {
+        long start = System.nanoTime();
+        try {
+            List<RunEntry> runs = ReportIndex.list(reportsRoot);
+            long now = System.currentTimeMillis();
+            int archived = 0;
+            int deleted = 0;
+
+            // Run folders, newest first, over the count or age limit
+            int keptFolders = 1;
+            for (int i = runs.size() - 1; i >= 0; i--) {
+                RunEntry run = runs.get(i);
+                if (run.getRunId().equals(currentRunId) || run.getState() != RunState.FOLDER) {
+                    continue;
+                }
+                if (!Files.isDirectory(run.resolve(reportsRoot))) {
+                    // Removed outside of the retention, only the index entry is left
+                    ReportIndex.remove(reportsRoot, run.getRunId());
+                    runs.remove(i);
+                    continue;
+                }
+
+                boolean overCount = policy.getKeepRuns() > 0 && keptFolders >= policy.getKeepRuns();
+                boolean overAge = policy.getMaxAgeMillis() > 0
+                        && now - run.getStartedMillis() > policy.getMaxAgeMillis();
+                if (!overCount && !overAge) {
+                    keptFolders++;
+                    continue;
+                }
+
+                if (policy.getAction() == RetentionAction.ARCHIVE) {
+                    RunEntry archive = archive(reportsRoot, run);
+                    runs.set(i, archive);
+                    ReportIndex.put(reportsRoot, archive);
+                    archived++;
+                } else {
+                    delete(reportsRoot, run);
+                    runs.remove(i);
+                    deleted++;
+                }
+            }
+
+            // Oldest runs first while over the size limit
+            if (policy.getMaxTotalBytes() > 0) {
+                long total = 0;
+                for (RunEntry run : runs) {
+                    total += run.getBytes();
+                }
+                for (RunEntry run : new ArrayList<>(runs)) {
+                    if (total <= policy.getMaxTotalBytes()) {
+                        break;
+                    }
+                    if (!run.getRunId().equals(currentRunId)) {
+                        delete(reportsRoot, run);
+                        total -= run.getBytes();
+                        deleted++;
+                    }
+                }
+            }
+
+            LOGGER.info("Report retention (" + policy + "): " + archived + " runs archived, " + deleted
+                    + " runs deleted in " + (System.nanoTime() - start) / 1_000_000L + " ms");
+        } catch (IOException e) {
+            LOGGER.error("Error applying report retention under " + reportsRoot + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Zip a run folder next to it, reusing the zip package of the run if there is one, then delete the folder
+     */
+    private static RunEntry archive(Path reportsRoot, RunEntry run) throws IOException {
+        Path folder = run.resolve(reportsRoot);
+        Path archive = folder.resolveSibling(folder.getFileName() + ARCHIVE_EXTENSION);
+        if (!Files.exists(archive)) {
+            // A single compression worker, this runs next to the tests
+            ParallelArchiver.archive(folder, archive, ArchiveFormat.ZIP, 1);
+        }
+
+        AsyncFileCleaner.deleteTree(folder, true);
+        LOGGER.info("Archived report run: " + folder);
+        return run.withStorage(RunState.ARCHIVE, ReportIndex.sizeOfRun(archive, run.getRunId()),
+                reportsRoot.relativize(archive).toString().replace('\\', '/'));
+    }
+
+    /**
+     * Delete a run folder or archive together with the packages and manifests of the run
+     */
+    private static void delete(Path reportsRoot, RunEntry run) throws IOException {
+        Path path = run.resolve(reportsRoot);
+        AsyncFileCleaner.deleteChildren(path.getParent(), child -> child.getFileName().toString()
+                .startsWith(run.getRunId())).thenRun(() -> deleteIfEmpty(path.getParent(), reportsRoot));
+        ReportIndex.remove(reportsRoot, run.getRunId());
+        LOGGER.info("Deleted report run: " + run);
+    }
+
+    /**
+     * Delete a date folder left empty, never the report output directory itself
+     */
+    private static void deleteIfEmpty(Path directory, Path reportsRoot) {
+        if (directory.equals(reportsRoot)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // Not empty, other runs of the same day are left
+        }
+    }
+}
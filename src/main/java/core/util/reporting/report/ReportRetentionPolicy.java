@@ -0,0 +1,71 @@
+package core.util.reporting.report;
+
+import core.util.platform.host.file.ConfigValue;
+import core.util.platform.host.file.RuntimeConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits for the run folders kept under the report output directory; a limit of 0 or less disables it.
+ * Values are read with system property, environment variable or extent-report.yaml.
+ */
+public class ReportRetentionPolicy {
+
+    private final int keepRuns;
+    private final long maxAgeMillis;
+    private final long maxTotalBytes;
+    private final RetentionAction action;
+
+    public ReportRetentionPolicy(int keepRuns, long maxAgeMillis, long maxTotalBytes, RetentionAction action) {
+        this.keepRuns = keepRuns;
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxTotalBytes = maxTotalBytes;
+        this.action = action;
+    }
+
+    /**
+     * Load the policy from configuration
+     */
+    public static ReportRetentionPolicy load() {
+        int keepRuns = resolve(ExtentReportConfig.RETENTION_KEEP_RUNS).getInt(0);
+        long maxAgeDays = resolve(ExtentReportConfig.RETENTION_MAX_AGE_DAYS).getLong(0);
+        long maxTotalMb = resolve(ExtentReportConfig.RETENTION_MAX_TOTAL_MB).getLong(0);
+        RetentionAction action = RetentionAction.getRetentionActionByName(
+                resolve(ExtentReportConfig.RETENTION_ACTION).getString(RetentionAction.ARCHIVE.toString()));
+        return new ReportRetentionPolicy(keepRuns, TimeUnit.DAYS.toMillis(maxAgeDays), maxTotalMb * 1024 * 1024,
+                action);
+    }
+
+    public int getKeepRuns() {
+        return keepRuns;
+    }
+
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    public long getMaxTotalBytes() {
+        return maxTotalBytes;
+    }
+
+    public RetentionAction getAction() {
+        return action;
+    }
+
+    /**
+     * Whether any limit is set
+     */
+    public boolean isEnabled() {
+        return keepRuns > 0 || maxAgeMillis > 0 || maxTotalBytes > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "keepRuns=" + keepRuns + ", maxAgeMillis=" + maxAgeMillis + ", maxTotalBytes=" + maxTotalBytes
+                + ", action=" + action;
+    }
+
+    private static ConfigValue resolve(ExtentReportConfig key) {
+        return RuntimeConfig.resolve(key.toString(), ExtentReportConfig.EXTENT_REPORT_CONFIG_FILE_PATH.toString());
+    }
+}
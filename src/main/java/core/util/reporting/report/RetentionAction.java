@@ -0,0 +1,32 @@
+package core.util.reporting.report;
+
+public enum RetentionAction {
+    ARCHIVE("archive"),
+    DELETE("delete"),
+    ;
+
+    private final String action;
+
+    RetentionAction(String action) {
+        this.action = action;
+    }
+
+    @Override
+    public String toString() {
+        return this.action;
+    }
+
+    /**
+     * Get RetentionAction by name, defaulting to ARCHIVE for unknown values
+     */
+    public static RetentionAction getRetentionActionByName(String name) {
+        if (name != null) {
+            for (RetentionAction retentionAction : values()) {
+                if (retentionAction.action.equalsIgnoreCase(name.trim())) {
+                    return retentionAction;
+                }
+            }
+        }
+        return ARCHIVE;
+    }
+}
@@ -1,6 +1,8 @@
 package core.util.reporting.report;
 
-public enum ScreenshotConfig {
+import core.util.platform.host.file.ConfigOption;
+
+public enum ScreenshotConfig implements ConfigOption {
     DEBUG("debug"),
     ;
 
@@ -16,8 +18,6 @@ public enum ScreenshotConfig {
     }
 
     public static boolean debug() {
-        if (System.getProperty(ScreenshotConfig.DEBUG.toString()) != null) {
-            return Boolean.parseBoolean(System.getProperty(ScreenshotConfig.DEBUG.toString()));
-        } else return false;
+        return DEBUG.value().getBoolean(false);
     }
 }
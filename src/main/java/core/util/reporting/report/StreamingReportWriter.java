@@ -0,0 +1,477 @@
+package core.util.reporting.report;
+
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import core.util.platform.host.file.AtomicFiles;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded-memory report for very large suites, used instead of the ExtentReports model when streamingReport is true
+ * or reportShard is set.
+ * Tests are kept in memory only while running: each finished test is appended as one JSON line to a segment file
+ * and dropped from the heap. Segments are flushed in the background every few seconds; at the end a "shard.json"
+ * manifest with the counts and segments is written next to them, and the HTML report is rendered from the segments
+ * by streaming, one test at a time. Shards of several forks are combined by {@link ReportMerger}.
+ * Owned by the report writer thread of {@link ExtentEventPipeline}.
+ */
+class StreamingReportWriter {
+    private static final Logger LOGGER = LogManager.getLogger(StreamingReportWriter.class);
+
+    static final String MANIFEST_FILE = "shard.json";
+    private static final int TESTS_PER_SEGMENT = 1000;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Path segmentDirectory;
+    private final String shardId;
+    private final Map<Long, TestNode> running = new HashMap<>();
+    private final Summary summary = new Summary();
+    private final List<String> segmentNames = new ArrayList<>();
+    private JsonGenerator segment;
+    private int testsInSegment;
+    private long lastFlushNanos = System.nanoTime();
+    private boolean dirty;
+
+    /**
+     * @param segmentDirectory the directory of the segments and manifest
+     * @param shardId          the unique name of this shard
+     */
+    StreamingReportWriter(Path segmentDirectory, String shardId) {
+        this.segmentDirectory = segmentDirectory;
+        this.shardId = shardId;
+    }
+
+    /**
+     * @param startMillis the time the test started, taken on the test thread
+     */
+    void startTest(long testId, String testName, String description, long startMillis) {
+        running.put(testId, new TestNode(testName, description, startMillis));
+    }
+
+    /**
+     * Add a log entry, a label if color is not null
+     *
+     * @return false if the test is not running
+     */
+    boolean log(long testId, Status status, String details, ExtentColor color) {
+        TestNode test = running.get(testId);
+        if (test == null) {
+            return false;
+        }
+        test.add(status, details, color);
+        return true;
+    }
+
+    /**
+     * Add a screenshot as an image log entry, linked to its file
+     *
+     * @param source the path of the file or a data URI
+     * @param title  the title of the screenshot, or null
+     * @return false if the test is not running
+     */
+    boolean screenshot(long testId, String source, String title) {
+        String image = "<a href=\"" + escape(source) + "\"><img src=\"" + escape(source)
+                + "\" style=\"max-width:400px\"></a>";
+        return log(testId, Status.INFO, title == null ? image : escape(title) + "<br>" + image, null);
+    }
+
+    /**
+     * Write the test to the current segment and drop it
+     *
+     * @param endMillis the time the test ended, taken on the test thread
+     */
+    void endTest(long testId, long endMillis) {
+        TestNode test = running.remove(testId);
+        if (test == null) {
+            return;
+        }
+        test.endMillis = endMillis;
+        try {
+            write(test);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write test to report segment: " + test.name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Flush the segment to disk if the flush interval elapsed, called by the writer thread on every pass
+     */
+    void flushIfDue() {
+        if (dirty && System.nanoTime() - lastFlushNanos >= FLUSH_INTERVAL_NANOS) {
+            try {
+                segment.flush();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to flush report segment: " + e.getMessage());
+            }
+            dirty = false;
+            lastFlushNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Write the tests still running, close the segment, write the manifest and render the HTML report
+     *
+     * @param htmlFile the report file
+     * @param sections HTML sections rendered after the tests, outside the test counts
+     */
+    void finish(Path htmlFile, List<String> sections) throws IOException {
+        // Tests without end event end now
+        long now = System.currentTimeMillis();
+        for (Long testId : new ArrayList<>(running.keySet())) {
+            endTest(testId, now);
+        }
+        closeSegment();
+        writeManifest();
+
+        long start = System.nanoTime();
+        List<Path> segments = new ArrayList<>();
+        for (String segmentName : segmentNames) {
+            segments.add(segmentDirectory.resolve(segmentName));
+        }
+        render(htmlFile, "Test Report", summary, segments, segment -> UnaryOperator.identity(), sections);
+        LOGGER.info("Streaming report of " + summary.total + " tests from " + segments.size() + " segments written in "
+                + (System.nanoTime() - start) / 1_000_000L + " ms: " + htmlFile);
+    }
+
+    Path getSegmentDirectory() {
+        return segmentDirectory;
+    }
+
+    private void write(TestNode test) throws IOException {
+        if (segment == null || testsInSegment >= TESTS_PER_SEGMENT) {
+            closeSegment();
+            Files.createDirectories(segmentDirectory);
+            String segmentName = String.format("segment-%05d.jsonl", segmentNames.size() + 1);
+            OutputStream out = Files.newOutputStream(segmentDirectory.resolve(segmentName));
+            segmentNames.add(segmentName);
+            segment = JSON_FACTORY.createGenerator(out);
+            segment.setRootValueSeparator(null);
+            testsInSegment = 0;
+        }
+
+        segment.writeStartObject();
+        segment.writeStringField("name", test.name);
+        segment.writeStringField("description", test.description);
+        segment.writeStringField("status", test.getStatus().name());
+        segment.writeNumberField("start", test.startMillis);
+        segment.writeNumberField("end", test.endMillis);
+        segment.writeArrayFieldStart("logs");
+        for (LogEntry entry : test.logs) {
+            segment.writeStartObject();
+            segment.writeStringField("status", entry.status.name());
+            segment.writeStringField("details", entry.details);
+            if (entry.color != null) {
+                segment.writeStringField("color", entry.color.name());
+            }
+            segment.writeEndObject();
+        }
+        segment.writeEndArray();
+        segment.writeEndObject();
+        segment.writeRaw('\n');
+        testsInSegment++;
+        summary.add(test.getStatus().name(), test.startMillis, test.endMillis);
+        dirty = true;
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+            dirty = false;
+        }
+    }
+
+    /**
+     * Write the manifest atomically: shard name, counts, the segments in order and the screenshots directory
+     */
+    private void writeManifest() throws IOException {
+        Files.createDirectories(segmentDirectory);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonGenerator manifest = JSON_FACTORY.createGenerator(bytes)) {
+            manifest.writeStartObject();
+            manifest.writeStringField("shard", shardId);
+            manifest.writeNumberField("tests", summary.total);
+            manifest.writeNumberField("passed", summary.passed);
+            manifest.writeNumberField("failed", summary.failed);
+            manifest.writeNumberField("skipped", summary.skipped);
+            manifest.writeNumberField("start", summary.start);
+            manifest.writeNumberField("end", summary.end);
+            String screenshots = System.getProperty("screenshots.directory");
+            if (screenshots != null) {
+                manifest.writeStringField("assets", segmentDirectory.toAbsolutePath()
+                        .relativize(Paths.get(screenshots).toAbsolutePath()).toString().replace('\\', '/'));
+            }
+            manifest.writeArrayFieldStart("segments");
+            for (String segmentName : segmentNames) {
+                manifest.writeString(segmentName);
+            }
+            manifest.writeEndArray();
+            manifest.writeEndObject();
+        }
+        AtomicFiles.write(segmentDirectory.resolve(MANIFEST_FILE), bytes.toByteArray());
+    }
+
+    /**
+     * Render the HTML report from segments, reading one test at a time
+     *
+     * @param rewriters gives for each segment the rewrite of the details of its log entries, e.g. links to assets
+     */
+    static void render(Path htmlFile, String title, Summary summary, List<Path> segments,
+            Function<Path, UnaryOperator<String>> rewriters) throws IOException {
+        render(htmlFile, title, summary, segments, rewriters, Collections.emptyList());
+    }
+
+    /**
+     * Render the HTML report from segments, followed by sections that are not tests, e.g. method timings
+     *
+     * @param sections HTML sections, not counted as tests
+     */
+    static void render(Path htmlFile, String title, Summary summary, List<Path> segments,
+            Function<Path, UnaryOperator<String>> rewriters, List<String> sections) throws IOException {
+        Path temp = AtomicFiles.createTempSibling(htmlFile);
+        try {
+            try (Writer html = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writeHeader(html, title, summary);
+                for (Path segmentFile : segments) {
+                    UnaryOperator<String> details = rewriters.apply(segmentFile);
+                    try (JsonParser parser = JSON_FACTORY.createParser(segmentFile.toFile())) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            writeTest(html, parser, details);
+                        }
+                    }
+                }
+                for (String section : sections) {
+                    html.write("<section>\n" + section + "\n</section>\n");
+                }
+                html.write("</main>\n</body>\n</html>\n");
+            }
+            AtomicFiles.move(temp, htmlFile);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeHeader(Writer html, String title, Summary summary) throws IOException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_TIME_FORMAT);
+        html.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>" + escape(title)
+                + "</title>\n");
+        html.write("<style>body{font-family:sans-serif;margin:20px}details{border:1px solid #ddd;margin:4px 0;"
+                + "padding:4px 8px}summary{cursor:pointer}.status{display:inline-block;width:70px;font-weight:bold}"
+                + ".pass{color:green}.fail{color:red}.skip{color:orange}.warning{color:goldenrod}.info{color:gray}"
+                + "table{border-collapse:collapse}td{padding:2px 8px;vertical-align:top}"
+                + ".label{color:white;padding:1px 6px;border-radius:3px}</style>\n</head>\n<body>\n");
+        html.write("<h1>" + escape(title) + "</h1>\n<p>");
+        html.write("Tests: " + summary.total + " | Passed: " + summary.passed + " | Failed: " + summary.failed
+                + " | Skipped: " + summary.skipped);
+        if (summary.total > 0) {
+            html.write(" | Started: " + dateFormat.format(new Date(summary.start))
+                    + " | Ended: " + dateFormat.format(new Date(summary.end)));
+        }
+        html.write("</p>\n<main>\n");
+    }
+
+    /**
+     * Render one test while reading it, so only one log entry is in memory at a time
+     */
+    private static void writeTest(Writer html, JsonParser parser, UnaryOperator<String> details)
+            throws IOException {
+        String name = "";
+        String description = "";
+        String status = "";
+        long start = 0;
+        long end = 0;
+        StringBuilder logs = new StringBuilder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "name":
+                    name = parser.getText();
+                    break;
+                case "description":
+                    description = parser.getText();
+                    break;
+                case "status":
+                    status = parser.getText();
+                    break;
+                case "start":
+                    start = parser.getLongValue();
+                    break;
+                case "end":
+                    end = parser.getLongValue();
+                    break;
+                case "logs":
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        appendLog(logs, parser, details);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        String css = status.toLowerCase();
+        html.write("<details" + ("fail".equals(css) ? " open" : "") + "><summary><span class=\"status " + css
+                + "\">" + status + "</span>" + escape(name) + " <small>(" + (end - start) + " ms)</small>"
+                + "</summary>\n");
+        if (!description.isEmpty()) {
+            html.write("<p>" + escape(description) + "</p>\n");
+        }
+        html.write("<table>\n");
+        html.write(logs.toString());
+        html.write("</table>\n</details>\n");
+    }
+
+    private static void appendLog(StringBuilder logs, JsonParser parser, UnaryOperator<String> rewrite)
+            throws IOException {
+        String status = "";
+        String details = "";
+        String color = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("status".equals(field)) {
+                status = parser.getText();
+            } else if ("details".equals(field)) {
+                details = rewrite.apply(parser.getText());
+            } else if ("color".equals(field)) {
+                color = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        logs.append("<tr><td class=\"").append(status.toLowerCase()).append("\">").append(status).append("</td><td>");
+        if (color != null) {
+            // Details are HTML, as in ExtentReports, except label texts
+            logs.append("<span class=\"label\" style=\"background:").append(color.toLowerCase()).append("\">")
+                    .append(escape(details)).append("</span>");
+        } else {
+            logs.append(details);
+        }
+        logs.append("</td></tr>\n");
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static int severity(Status status) {
+        switch (status) {
+            case FAIL:
+                return 4;
+            case SKIP:
+                return 3;
+            case WARNING:
+                return 2;
+            case PASS:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * A running test
+     */
+    private static final class TestNode {
+        private final String name;
+        private final String description;
+        private final long startMillis;
+        private long endMillis;
+        private Status status;
+        private final List<LogEntry> logs = new ArrayList<>();
+
+        TestNode(String name, String description, long startMillis) {
+            this.name = name == null ? "" : name;
+            this.description = description == null ? "" : description;
+            this.startMillis = startMillis;
+        }
+
+        void add(Status status, String details, ExtentColor color) {
+            logs.add(new LogEntry(status, details == null ? "" : details, color));
+            if (this.status == null || severity(status) > severity(this.status)) {
+                this.status = status;
+            }
+        }
+
+        /**
+         * The most severe status logged; a test without failure, skip or warning passed, as in ExtentReports
+         */
+        Status getStatus() {
+            return status == null || status == Status.INFO ? Status.PASS : status;
+        }
+    }
+
+    private static final class LogEntry {
+        private final Status status;
+        private final String details;
+        private final ExtentColor color;
+
+        LogEntry(Status status, String details, ExtentColor color) {
+            this.status = status;
+            this.details = details;
+            this.color = color;
+        }
+    }
+
+    /**
+     * Counts of a report or shard
+     */
+    static final class Summary {
+        int total;
+        int passed;
+        int failed;
+        int skipped;
+        long start = Long.MAX_VALUE;
+        long end;
+
+        void add(String status, long startMillis, long endMillis) {
+            total++;
+            if ("PASS".equals(status)) {
+                passed++;
+            } else if ("FAIL".equals(status)) {
+                failed++;
+            } else if ("SKIP".equals(status)) {
+                skipped++;
+            }
+            start = Math.min(start, startMillis);
+            end = Math.max(end, endMillis);
+        }
+
+        void merge(Summary other) {
+            total += other.total;
+            passed += other.passed;
+            failed += other.failed;
+            skipped += other.skipped;
+            start = Math.min(start, other.start);
+            end = Math.max(end, other.end);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package core.util.reporting.report;
+
+import core.util.platform.host.file.PropertiesStore;
+import core.util.platform.host.file.RuntimeConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Durations of test classes and methods across runs, to schedule the longest work first in parallel suites so no
+ * long class starts last and keeps one thread busy while the others are idle.
+ * The history is a properties file, target/timing-history.properties by default or the timingHistory path, with
+ * "class.&lt;name&gt;" and "method.&lt;qualified name&gt;" keys in milliseconds. Each run updates the durations it
+ * measured with {@link MethodTimings}, averaged with the previous value so one slow run does not reorder the suite.
+ * Classes and methods without history are scheduled first, in declaration order, so their duration is learnt.
+ * Suites without parallelism keep their order; -DlongestFirst=false disables reordering.
+ */
+public class TimingHistory {
+    private static final Logger LOGGER = LogManager.getLogger(TimingHistory.class);
+
+    private static final String HISTORY_PROPERTY = "timingHistory";
+    private static final String ENABLED_PROPERTY = "longestFirst";
+    private static final String DEFAULT_HISTORY_FILE = "target/timing-history.properties";
+    private static final String CLASS_PREFIX = "class.";
+    private static final String METHOD_PREFIX = "method.";
+
+    private TimingHistory() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Whether suites are reordered, with system property or environment variable
+     */
+    public static boolean isEnabled() {
+        return SettingsHolder.ENABLED;
+    }
+
+    /**
+     * Order the classes of each test of parallel suites longest first, and the tests too when they run in parallel
+     */
+    public static void reorderSuites(List<XmlSuite> suites) {
+        Map<String, String> history = read();
+        if (history.isEmpty()) {
+            LOGGER.info("No timing history in " + getHistoryFile() + ", suites keep their order");
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            XmlSuite.ParallelMode parallel = suite.getParallel();
+            if (parallel == null || parallel == XmlSuite.ParallelMode.NONE) {
+                continue;
+            }
+            Map<XmlTest, Long> testDurations = new HashMap<>();
+            for (XmlTest test : suite.getTests()) {
+                List<XmlClass> classes = new ArrayList<>(test.getXmlClasses());
+                classes.sort(longestFirst(xmlClass -> getDuration(history, CLASS_PREFIX + xmlClass.getName())));
+                for (int i = 0; i < classes.size(); i++) {
+                    classes.get(i).setIndex(i);
+                }
+                test.setXmlClasses(classes);
+                testDurations.put(test, getTestDuration(history, classes));
+                LOGGER.info("Scheduled classes of " + test.getName() + " longest first: " + toNames(classes));
+            }
+            if (parallel == XmlSuite.ParallelMode.TESTS) {
+                suite.getTests().sort(longestFirst(testDurations::get));
+            }
+        }
+    }
+
+    /**
+     * Order methods longest first, for suites running methods in parallel
+     */
+    public static List<IMethodInstance> reorderMethods(List<IMethodInstance> methods) {
+        Map<String, String> history = read();
+        if (history.isEmpty()) {
+            return methods;
+        }
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(longestFirst(method -> getDuration(history,
+                METHOD_PREFIX + method.getMethod().getQualifiedName())));
+        return ordered;
+    }
+
+    /**
+     * Update the history with the durations of this run and write it
+     */
+    public static void recordRun() {
+        Map<String, Long> durations = new HashMap<>();
+        for (MethodTimings.Timing timing : MethodTimings.merge()) {
+            if (timing.getKind() == MethodTimings.Kind.DATA_PROVIDER) {
+                continue;
+            }
+            long millis = timing.getWall().getTotal() / 1000;
+            String method = timing.getMethod();
+            int classEnd = method.lastIndexOf('.');
+            if (classEnd > 0) {
+                // The configuration methods of a class count to its duration
+                durations.merge(CLASS_PREFIX + method.substring(0, classEnd), millis, Long::sum);
+            }
+            if (timing.getKind() == MethodTimings.Kind.TEST) {
+                durations.merge(METHOD_PREFIX + method, millis, Long::sum);
+            }
+        }
+        if (durations.isEmpty()) {
+            return;
+        }
+
+        Path file = getHistoryFile();
+        Map<String, String> history = read();
+        durations.forEach((key, millis) -> {
+            Long previous = parse(history.get(key));
+            PropertiesStore.set(file, key, String.valueOf(previous == null ? millis : (previous + millis) / 2));
+        });
+        try {
+            PropertiesStore.flush(file);
+            LOGGER.info("Timing history of " + durations.size() + " classes and methods written to " + file);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write timing history " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Path getHistoryFile() {
+        return SettingsHolder.HISTORY_FILE;
+    }
+
+    private static Map<String, String> read() {
+        Path file = getHistoryFile();
+        try {
+            return PropertiesStore.getAll(file);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot read timing history " + file + ": " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private static long getTestDuration(Map<String, String> history, List<XmlClass> classes) {
+        long total = 0;
+        for (XmlClass xmlClass : classes) {
+            Long duration = getDuration(history, CLASS_PREFIX + xmlClass.getName());
+            if (duration == null) {
+                return Long.MAX_VALUE;
+            }
+            total += duration;
+        }
+        return total;
+    }
+
+    private static Long getDuration(Map<String, String> history, String key) {
+        return parse(history.get(key));
+    }
+
+    private static Long parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Longest first; unknown durations first, and a stable sort keeps the declaration order of equal durations
+     */
+    private static <T> Comparator<T> longestFirst(Function<T, Long> duration) {
+        return Comparator.comparingLong((T item) -> {
+            Long value = duration.apply(item);
+            return value == null ? Long.MAX_VALUE : value;
+        }).reversed();
+    }
+
+    private static List<String> toNames(List<XmlClass> classes) {
+        List<String> names = new ArrayList<>(classes.size());
+        classes.forEach(xmlClass -> names.add(xmlClass.getName()));
+        return names;
+    }
+
+    /**
+     * Reads the settings once
+     */
+    private static final class SettingsHolder {
+        private static final boolean ENABLED = RuntimeConfig.resolve(ENABLED_PROPERTY, null).getBoolean(true);
+        private static final Path HISTORY_FILE = resolveHistoryFile();
+
+        private static Path resolveHistoryFile() {
+            String path = RuntimeConfig.resolve(HISTORY_PROPERTY, null).getString(null);
+            if (path == null || path.trim().isEmpty()) {
+                return Paths.get(System.getProperty("user.dir"), DEFAULT_HISTORY_FILE);
+            }
+            return Paths.get(path.trim());
+        }
+    }
+}
@@ -6,7 +6,7 @@ import org.testng.ITestResult;
 public class RetryAnalyzer implements IRetryAnalyzer {
 
     int counter = 0;
-    int retryLimit = 0;
+    int retryLimit = RetryTestConfig.RETRY_LIMIT.value().getInt(0);
     /*
      * (non-Javadoc)
      * @see org.testng.RetryAnalyzer#retry(org.testng.ITestResult)
@@ -22,9 +22,6 @@ public class RetryAnalyzer implements IRetryAnalyzer {
 
     @Override
     public boolean retry(ITestResult result) {
-        if (System.getProperty(RetryTestConfig.RETRY_LIMIT.toString()) != null) {
-            retryLimit = Integer.parseInt(System.getProperty(RetryTestConfig.RETRY_LIMIT.toString()));
-        }
         if(counter < retryLimit)
         {
             counter++;
@@ -32,4 +29,11 @@ public class RetryAnalyzer implements IRetryAnalyzer {
         }
         return false;
     }
+
+    /**
+     * Number of times the test was retried so far
+     */
+    public int getRetryCount() {
+        return counter;
+    }
 }
@@ -1,6 +1,8 @@
 package core.util.reporting.retry;
 
-public enum RetryTestConfig {
+import core.util.platform.host.file.ConfigOption;
+
+public enum RetryTestConfig implements ConfigOption {
     RETRY_LIMIT("retryLimit"),
     ;
 
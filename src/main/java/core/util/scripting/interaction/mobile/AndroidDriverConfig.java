@@ -1,6 +1,8 @@
 package core.util.scripting.interaction.mobile;
 
-public enum AndroidDriverConfig {
+import core.util.platform.host.file.ConfigOption;
+
+public enum AndroidDriverConfig implements ConfigOption {
     ANDROID_DRIVER_CONFIG_FILE_PATH("core/appium/android/android-driver.yaml"),
     ANDROID_DRIVER_IMPLICITLY_WAIT("androidDriverImplicitlyWait"),
     ANDROID_ELEMENT_LIMIT_WAIT("androidElementLimitWait"),
@@ -18,4 +20,9 @@ public enum AndroidDriverConfig {
         return this.key;
     }
 
+    @Override
+    public String getConfigFile() {
+        return this == ANDROID_DRIVER_CONFIG_FILE_PATH ? null : ANDROID_DRIVER_CONFIG_FILE_PATH.key;
+    }
+
 }
@@ -1,6 +1,8 @@
 package core.util.scripting.interaction.mobile;
 
-public enum IosDriverConfig {
+import core.util.platform.host.file.ConfigOption;
+
+public enum IosDriverConfig implements ConfigOption {
     IOS_DRIVER_CONFIG_FILE_PATH("core/appium/ios/ios-driver.yaml"),
     IOS_DRIVER_IMPLICITLY_WAIT("iosDriverImplicitlyWait"),
     IOS_ELEMENT_LIMIT_WAIT("iosElementLimitWait"),
@@ -18,4 +20,9 @@ public enum IosDriverConfig {
         return this.key;
     }
 
+    @Override
+    public String getConfigFile() {
+        return this == IOS_DRIVER_CONFIG_FILE_PATH ? null : IOS_DRIVER_CONFIG_FILE_PATH.key;
+    }
+
 }
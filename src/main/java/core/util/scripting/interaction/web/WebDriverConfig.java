@@ -1,6 +1,8 @@
 package core.util.scripting.interaction.web;
 
-public enum WebDriverConfig {
+import core.util.platform.host.file.ConfigOption;
+
+public enum WebDriverConfig implements ConfigOption {
     BROWSER_TYPE("browserType"),
     DRIVER_VERSION("driverVersion"),
     WEB_MOCK("webMock"),
@@ -24,8 +26,6 @@ public enum WebDriverConfig {
     }
 
     public static boolean mockConfig() {
-        if (System.getProperty(WebDriverConfig.WEB_MOCK.toString()) != null)
-            return Boolean.parseBoolean(System.getProperty(WebDriverConfig.WEB_MOCK.toString()));
-        else return false;
+        return WEB_MOCK.value().getBoolean(false);
     }
 }
@@ -1,11 +1,8 @@
 package core.util.scripting.io;
 
+import core.util.platform.host.file.TextRewriter;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -90,11 +87,7 @@ public class StringHelper {
 
     public static void replaceTextFile(String inputFile, String outFile, String key, String newKey) {
         try {
-            Path path = Paths.get(inputFile);
-            Charset charset = StandardCharsets.UTF_8;
-            String content = new String(Files.readAllBytes(path), charset);
-            content = content.replaceAll(key, newKey);
-            Files.write(Paths.get(outFile), content.getBytes(charset));
+            TextRewriter.replacePatterns(Paths.get(inputFile), Paths.get(outFile), Collections.singletonMap(key, newKey));
         } catch (Exception e) {
             LOGGER.error("Got error: " + e.getMessage());
         }